@@ -3,6 +3,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,9 +11,22 @@ import java.util.List;
  */
 public class CSVWriter {
 
+    private static final String HEADER = "Generation,Best Fitness,Average Fitness,Cross-over Rate,Mutation Rate,"
+            + "Population,Tournament Size,Engine,Selection,Elapsed Ms";
+
+    /**
+     * The columns added after the first version of the file, starting at FIRST_ADDED_COLUMN, and
+     * the values given to them in rows written before they existed. They match the values
+     * CrossRunStatistics assumes for such rows: tournament size and engine unrecorded,
+     * tournament selection, and no elapsed time.
+     */
+    private static final int FIRST_ADDED_COLUMN = 6;
+    private static final String[] ADDED_COLUMN_DEFAULTS = {"0", "unrecorded", "tournament", ""};
+
     /**
      * This method appends generation data to a CSV file. If the file does not exist or is empty,
-     * it writes the CSV header as well.
+     * it writes the CSV header as well. If the file was written with an older header, it is
+     * upgraded first so that every row has the columns of the current header.
      *
      * @param generationDataList A list of GenerationData objects containing data
      *                           for each generation.
@@ -25,12 +39,14 @@ public class CSVWriter {
         // Check if the file does not exist or if it is empty
         if (!Files.exists(Path.of(filePath)) || Files.size(Path.of(filePath)) == 0) {
             writeHeader = true;
+        } else {
+            upgradeHeader(filePath);
         }
 
         try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, true))) {
             if (writeHeader) {
                 // Write CSV header if the file is empty
-                writer.append("Generation,Best Fitness,Average Fitness,Cross-over Rate,Mutation Rate,Population\n");
+                writer.append(HEADER).append("\n");
             }
 
             for (GenerationData generationData : generationDataList) {
@@ -39,11 +55,56 @@ public class CSVWriter {
                 writer.append(String.valueOf(generationData.getAverageFitness())).append(",");
                 writer.append(String.valueOf(generationData.getCrossOverRate())).append(",");
                 writer.append(String.valueOf(generationData.getMutationRate())).append(",");
-                writer.append(String.valueOf(generationData.getPopulation())).append("\n");
+                writer.append(String.valueOf(generationData.getPopulation())).append(",");
+                writer.append(String.valueOf(generationData.getTournamentSize())).append(",");
+                writer.append(generationData.getEngine()).append(",");
+                writer.append(generationData.getSelection()).append(",");
+                writer.append(String.valueOf(generationData.getElapsedMs())).append("\n");
             }
         } catch (IOException e) {
             System.err.println("Error writing data to CSV: " + e.getMessage());
             throw e;
         }
     }//appendDataToCSV
+
+    /**
+     * This method rewrites a CSV file whose header is not the current one. The header is
+     * replaced and every shorter row is padded with the values its missing columns stand for,
+     * so the file stays readable as one table.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs while reading or writing the file.
+     */
+    private static void upgradeHeader(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        List<String> lines = Files.readAllLines(path);
+        if (lines.get(0).equals(HEADER)) {
+            return;
+        }
+
+        int columns = FIRST_ADDED_COLUMN + ADDED_COLUMN_DEFAULTS.length;
+        List<String> upgraded = new ArrayList<>();
+        upgraded.add(HEADER);
+        for (int i = lines.get(0).startsWith("Generation") ? 1 : 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            StringBuilder row = new StringBuilder(line);
+            // split drops trailing empty fields, so count the separators instead
+            int fields = (int) line.chars().filter(c -> c == ',').count() + 1;
+            for (int column = Math.max(fields, FIRST_ADDED_COLUMN); column < columns; column++) {
+                row.append(",").append(ADDED_COLUMN_DEFAULTS[column - FIRST_ADDED_COLUMN]);
+            }
+            upgraded.add(row.toString());
+        }
+
+        try {
+            Files.write(path, upgraded);
+        } catch (IOException e) {
+            System.err.println("Error upgrading the header of the CSV file: " + e.getMessage());
+            throw e;
+        }
+        System.out.println("The CSV file " + filePath + " had an older header and has been upgraded.");
+    }//upgradeHeader
 }//CSVWriter
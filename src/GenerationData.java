@@ -5,6 +5,42 @@ public class GenerationData {
     private double crossOverRate;
     private double mutationRate;
     private double population;
+    private int tournamentSize;
+    private String engine;
+    private String selection;
+    private double elapsedMs;
+
+    public double getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(double elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getSelection() {
+        return selection;
+    }
+
+    public void setSelection(String selection) {
+        this.selection = selection;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public void setTournamentSize(int tournamentSize) {
+        this.tournamentSize = tournamentSize;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
 
     public double getPopulation() {
         return population;
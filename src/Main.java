@@ -1,5 +1,7 @@
-import ga.Evaluation;
 import ga.GeneticAlgorithm;
+import ga.OffHeapPopulation;
+import ga.sampling.SelectionScheme;
+import stats.CrossRunStatistics;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -92,53 +94,106 @@ public class Main {
      * @param MAX_GEN          The maximum number of generations to run the genetic algorithm.
      * @param seed             The seed for the random number generator to ensure reproducibility.
      * @param MUTATION_RATE    The probability of mutation in the offspring.
-     * @return A list of GenerationData objects representing data for each generation during the algorithm's execution.
+     * @param TOURNAMENT_SIZE  The tournament size, recorded with each generation of a tournament selection run.
+     * @param SELECTION        The selection scheme, recorded with each generation.
+     * @return A list of GenerationData objects representing data for each generation during the algorithm's execution,
+     *         including the time elapsed since the start of the run.
      */
     public static List<GenerationData> runGeneticAlgorithm(
             int POP_SIZE, double CROSSOVER_RATE,int CHROMOSOME_LENGTH, String ENCRYPTED_TEXT,
-            int MAX_GEN, long seed, double MUTATION_RATE
+            int MAX_GEN, long seed, double MUTATION_RATE, int TOURNAMENT_SIZE, SelectionScheme SELECTION
     ) {
-        random.setSeed(seed);
+        GeneticAlgorithm.setSeed(seed);
         List<GenerationData> generationDataList = new ArrayList<>();
+        long start = System.nanoTime();
 
         char[][] population = GeneticAlgorithm.initializePopulation();
+        double[] fitnessValues = GeneticAlgorithm.evaluatePopulation(population);
+        char[][] newPopulation = new char[POP_SIZE][CHROMOSOME_LENGTH];
+        double[] newFitnessValues = new double[POP_SIZE];
         double bestFitness = Double.MAX_VALUE;
 
         for (int gen = 1; gen <= MAX_GEN; gen++) {
-            double[] fitnessValues = GeneticAlgorithm.evaluatePopulation(population);
-            char[][] newPopulation = new char[POP_SIZE][CHROMOSOME_LENGTH];
-            double[] newFitnessValues = new double[POP_SIZE];
+            int bestIndex = GeneticAlgorithm.runGeneration(
+                    population, fitnessValues, newPopulation, newFitnessValues, CROSSOVER_RATE);
+            double minFitness = newFitnessValues[bestIndex];
 
-            for (int i = 0; i < POP_SIZE; i += 2) {
-                char[] parent1 = GeneticAlgorithm.selectParent(population, fitnessValues);
-                char[] parent2 = GeneticAlgorithm.selectParent(population, fitnessValues);
-                char[] child1 = parent1.clone();
-                char[] child2 = parent2.clone();
+            double averageFitness = 0;
+            for (double fitness : newFitnessValues) {
+                averageFitness += fitness;
+            }
+            averageFitness /= POP_SIZE;
 
-                if (random.nextDouble() < CROSSOVER_RATE) {
-                    GeneticAlgorithm.uniformcrossover(parent1, parent2, child1, child2);
-                    GeneticAlgorithm.onePointCrossover(parent1, parent2, child1, child2);
-                }
+            if (bestFitness - minFitness > FITNESS_THRESHOLD) {
+                bestFitness = minFitness;
+            }
 
-                GeneticAlgorithm.mutateChildren( child1, child2);
+            System.out.println("Generation: " + gen + " - Best Fitness: " + minFitness);
+            System.out.println("Generation: " + gen + " - Average Population Fitness: " + averageFitness);
 
-                newPopulation[i] = child1;
-                newPopulation[i + 1] = child2;
+            char[][] tempPopulation = population;
+            population = newPopulation;
+            newPopulation = tempPopulation;
+            double[] tempFitnessValues = fitnessValues;
+            fitnessValues = newFitnessValues;
+            newFitnessValues = tempFitnessValues;
 
-                newFitnessValues[i] = Evaluation.fitness(new String(child1), ENCRYPTED_TEXT);
-                newFitnessValues[i + 1] = Evaluation.fitness(new String(child2), ENCRYPTED_TEXT);
-            }
+            GenerationData generationData = new GenerationData();
+            generationData.setGenerationNumber(gen);
+            generationData.setElapsedMs((System.nanoTime() - start) / 1_000_000.0);
+            generationData.setBestFitness(minFitness);
+            generationData.setAverageFitness(averageFitness);
+            generationData.setCrossOverRate(CROSSOVER_RATE);
+            generationData.setMutationRate(MUTATION_RATE);
+            generationData.setPopulation(POP_SIZE);
+            generationData.setTournamentSize(SELECTION.recordedTournamentSize(TOURNAMENT_SIZE));
+            generationData.setEngine("heap");
+            generationData.setSelection(SELECTION.getName());
 
-            double minFitness = Double.MAX_VALUE;
-            for (int i = 0; i < POP_SIZE; i++) {
-                if (newFitnessValues[i] < minFitness) {
-                    minFitness = newFitnessValues[i];
-                }
-            }
+            generationDataList.add(generationData);
+        }
+        return generationDataList;
+    }
+
+    /**
+     * This method runs the genetic algorithm on an off-heap population store. The current and
+     * next generation are kept in two OffHeapPopulation buffers that are swapped after each
+     * generation, so the population never lives on the heap as char arrays. The buffers are
+     * supplied by the caller so they can be reused across runs.
+     *
+     * @param population       An off-heap store of POP_SIZE x CHROMOSOME_LENGTH genes for the current generation.
+     * @param newPopulation    An off-heap store of the same size for the next generation.
+     * @param POP_SIZE         The size of the population.
+     * @param CROSSOVER_RATE   The probability of crossover during reproduction.
+     * @param CHROMOSOME_LENGTH The length of each individual chromosome.
+     * @param MAX_GEN          The maximum number of generations to run the genetic algorithm.
+     * @param seed             The seed for the random number generator to ensure reproducibility.
+     * @param MUTATION_RATE    The probability of mutation in the offspring.
+     * @param TOURNAMENT_SIZE  The tournament size, recorded with each generation of a tournament selection run.
+     * @param SELECTION        The selection scheme, recorded with each generation.
+     * @return A list of GenerationData objects representing data for each generation during the algorithm's execution,
+     *         including the time elapsed since the start of the run.
+     */
+    public static List<GenerationData> runGeneticAlgorithmOffHeap(
+            OffHeapPopulation population, OffHeapPopulation newPopulation,
+            int POP_SIZE, double CROSSOVER_RATE, int CHROMOSOME_LENGTH,
+            int MAX_GEN, long seed, double MUTATION_RATE, int TOURNAMENT_SIZE, SelectionScheme SELECTION
+    ) {
+        GeneticAlgorithm.setSeed(seed);
+        List<GenerationData> generationDataList = new ArrayList<>();
+        long start = System.nanoTime();
+
+        GeneticAlgorithm.initializePopulation(population);
+        GeneticAlgorithm.evaluatePopulation(population);
+        double bestFitness = Double.MAX_VALUE;
+
+        for (int gen = 1; gen <= MAX_GEN; gen++) {
+            int bestIndex = GeneticAlgorithm.runGeneration(population, newPopulation, CROSSOVER_RATE);
+            double minFitness = newPopulation.getFitness(bestIndex);
 
             double averageFitness = 0;
-            for (double fitness : newFitnessValues) {
-                averageFitness += fitness;
+            for (int i = 0; i < POP_SIZE; i++) {
+                averageFitness += newPopulation.getFitness(i);
             }
             averageFitness /= POP_SIZE;
 
@@ -149,15 +204,21 @@ public class Main {
             System.out.println("Generation: " + gen + " - Best Fitness: " + minFitness);
             System.out.println("Generation: " + gen + " - Average Population Fitness: " + averageFitness);
 
+            OffHeapPopulation temp = population;
             population = newPopulation;
+            newPopulation = temp;
 
             GenerationData generationData = new GenerationData();
             generationData.setGenerationNumber(gen);
+            generationData.setElapsedMs((System.nanoTime() - start) / 1_000_000.0);
             generationData.setBestFitness(minFitness);
             generationData.setAverageFitness(averageFitness);
             generationData.setCrossOverRate(CROSSOVER_RATE);
             generationData.setMutationRate(MUTATION_RATE);
             generationData.setPopulation(POP_SIZE);
+            generationData.setTournamentSize(SELECTION.recordedTournamentSize(TOURNAMENT_SIZE));
+            generationData.setEngine("offheap");
+            generationData.setSelection(SELECTION.getName());
 
             generationDataList.add(generationData);
         }
@@ -181,6 +242,15 @@ public class Main {
         System.out.print("Enter maximum number of generations: ");
         int MAX_GEN = scanner.nextInt();
 
+        System.out.print("Use off-heap population store (y/n): ");
+        boolean OFF_HEAP = scanner.next().trim().equalsIgnoreCase("y");
+
+        System.out.print("Enter selection scheme (tournament/rank/sus): ");
+        SelectionScheme SELECTION = SelectionScheme.parse(scanner.next());
+
+        System.out.print("Enter target fitness for the time-to-target statistics: ");
+        double TARGET_FITNESS = scanner.nextDouble();
+
         int CHROMOSOME_LENGTH = getKeyLengthFromFile(PATH);
         String ENCRYPTED_TEXT = readEncryptedTextFromFile(CHROMOSOME_LENGTH).trim();
 
@@ -188,25 +258,43 @@ public class Main {
         System.out.println("Datafile: " + PATH );
         System.out.println("Population Size: " + POP_SIZE );
         System.out.println("Mutation Rate: " + MUTATION_RATE );
-        System.out.println("Tournament Size: " + TOURNAMENT_SIZE );
+        if (SELECTION == SelectionScheme.TOURNAMENT) {
+            System.out.println("Tournament Size: " + TOURNAMENT_SIZE );
+        }
         System.out.println("Chromosome Length: " + CHROMOSOME_LENGTH );
+        System.out.println("Off-heap Population: " + OFF_HEAP );
+        System.out.println("Selection Scheme: " + SELECTION.getName() );
 
         GeneticAlgorithm GA = new GeneticAlgorithm(
                 POP_SIZE, MUTATION_RATE,
-                TOURNAMENT_SIZE, CHROMOSOME_LENGTH, ENCRYPTED_TEXT
+                TOURNAMENT_SIZE, CHROMOSOME_LENGTH, ENCRYPTED_TEXT, SELECTION
         );
 
         int numRuns = 5;
+        String csvFilePath = "src/output.csv";
+        OffHeapPopulation population = OFF_HEAP ? new OffHeapPopulation(POP_SIZE, CHROMOSOME_LENGTH) : null;
+        OffHeapPopulation newPopulation = OFF_HEAP ? new OffHeapPopulation(POP_SIZE, CHROMOSOME_LENGTH) : null;
         for (int i = 0; i < numRuns; i++) {
             long seed = System.currentTimeMillis();
-            List<GenerationData> generationDataList = runGeneticAlgorithm(
-                    POP_SIZE, CROSSOVER_RATE,CHROMOSOME_LENGTH, ENCRYPTED_TEXT, MAX_GEN,seed,MUTATION_RATE
-            );
+            List<GenerationData> generationDataList = OFF_HEAP
+                    ? runGeneticAlgorithmOffHeap(
+                            population, newPopulation, POP_SIZE, CROSSOVER_RATE, CHROMOSOME_LENGTH, MAX_GEN, seed, MUTATION_RATE, TOURNAMENT_SIZE, SELECTION
+                    )
+                    : runGeneticAlgorithm(
+                            POP_SIZE, CROSSOVER_RATE,CHROMOSOME_LENGTH, ENCRYPTED_TEXT, MAX_GEN,seed,MUTATION_RATE, TOURNAMENT_SIZE, SELECTION
+                    );
 
-            String csvFilePath = "src/output.csv";
             CSVWriter.appendDataToCSV(generationDataList, csvFilePath);
         }
 
         System.out.println("All runs completed. Data has been written to the CSV file.");
+
+        CrossRunStatistics statistics = new CrossRunStatistics(TARGET_FITNESS);
+        statistics.addCsv(csvFilePath);
+        statistics.writeConfigurationSummary("src/statistics_configurations.csv");
+        statistics.writeGenerationSummary("src/statistics_generations.csv");
+        statistics.writeComparisons("src/statistics_comparisons.csv");
+        System.out.println("Statistics for " + statistics.getConfigurations().size()
+                + " configuration(s) have been written to the statistics CSV files.");
     }//main
 }//Main
@@ -0,0 +1,382 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the outcome of one end-to-end benchmark case and reads and writes the
+ * machine-readable CSV report made of these rows. The time to solution is the median over the
+ * repeated runs of the case; the minimum is kept alongside it. Both are left empty (NaN once
+ * read back) when the case is not solved, since the run then only measures the time to reach
+ * the generation limit or the run budget. The peak heap is an upper bound: it is the sum of the
+ * peaks of the individual heap pools, which need not occur at the same moment. Every run parameter is written
+ * with the results, so that two reports are only compared case by case when they were made
+ * with the same settings.
+ *
+ */
+public class BenchmarkResult {
+
+    private static final String HEADER = "Engine,Selection,Text Length,Key Length,Seed,Population,Max Generations,"
+            + "Crossover Rate,Mutation Rate,Tournament Size,Warmup,Repeats,Run Budget S,Budget Exceeded,"
+            + "Solved,Generations,Evaluations,Time To Solution Ms,Min Time To Solution Ms,Peak Heap Upper Bound Bytes,Allocated Bytes,Allocation Rate MB/s";
+
+    private String engine;
+    private String selection;
+    private int textLength;
+    private int keyLength;
+    private long seed;
+    private int population;
+    private int maxGenerations;
+    private double crossoverRate;
+    private double mutationRate;
+    private int tournamentSize;
+    private int warmup;
+    private int repeats;
+    private int runBudgetS;
+    private boolean budgetExceeded;
+    private boolean solved;
+    private int generations;
+    private long evaluations;
+    private double timeToSolutionMs;
+    private double minTimeToSolutionMs;
+    private long peakHeapUpperBoundBytes;
+    private long allocatedBytes;
+    private double allocationRateMbPerSecond;
+
+    /**
+     * @return The key identifying the case, used to match rows between two reports.
+     */
+    public String getCaseKey() {
+        return getCaseKey(null);
+    }//getCaseKey
+
+    /**
+     * This method returns the key identifying the case without the dimension being compared, so
+     * that, for example, the heap and off-heap results of the same sample are matched.
+     *
+     * @param across The dimension being compared (engine or selection), or null to match on both.
+     * @return The key identifying the case, used to match rows between two reports.
+     */
+    public String getCaseKey(String across) {
+        return ("engine".equals(across) ? "" : engine + "/")
+                + ("selection".equals(across) ? "" : selection + "/")
+                + textLength + "/" + keyLength + "/" + seed;
+    }//getCaseKey
+
+    /**
+     * This method lists the run parameters that differ from those of another result of the same
+     * case. Results with different parameters measure different work and cannot be compared.
+     *
+     * @param other The result of the same case in the other report.
+     * @return The differing parameters, or an empty string if all of them match.
+     */
+    public String getParameterDifferences(BenchmarkResult other) {
+        StringBuilder differences = new StringBuilder();
+        appendDifference(differences, "population", population, other.population);
+        appendDifference(differences, "max generations", maxGenerations, other.maxGenerations);
+        appendDifference(differences, "crossover rate", crossoverRate, other.crossoverRate);
+        appendDifference(differences, "mutation rate", mutationRate, other.mutationRate);
+        appendDifference(differences, "tournament size", tournamentSize, other.tournamentSize);
+        appendDifference(differences, "warmup", warmup, other.warmup);
+        appendDifference(differences, "repeats", repeats, other.repeats);
+        appendDifference(differences, "run budget s", runBudgetS, other.runBudgetS);
+        return differences.toString();
+    }//getParameterDifferences
+
+    private static void appendDifference(StringBuilder differences, String name, Object before, Object after) {
+        if (!before.equals(after)) {
+            differences.append(differences.length() > 0 ? ", " : "")
+                    .append(name).append(" ").append(before).append(" -> ").append(after);
+        }
+    }//appendDifference
+
+    /**
+     * This method writes a report to a CSV file, replacing any existing file.
+     *
+     * @param results  The benchmark results to write.
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    public static void writeReport(List<BenchmarkResult> results, String filePath) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+            writer.append(HEADER).append("\n");
+            for (BenchmarkResult result : results) {
+                writer.append(result.engine).append(",");
+                writer.append(result.selection).append(",");
+                writer.append(String.valueOf(result.textLength)).append(",");
+                writer.append(String.valueOf(result.keyLength)).append(",");
+                writer.append(String.valueOf(result.seed)).append(",");
+                writer.append(String.valueOf(result.population)).append(",");
+                writer.append(String.valueOf(result.maxGenerations)).append(",");
+                writer.append(String.valueOf(result.crossoverRate)).append(",");
+                writer.append(String.valueOf(result.mutationRate)).append(",");
+                writer.append(String.valueOf(result.tournamentSize)).append(",");
+                writer.append(String.valueOf(result.warmup)).append(",");
+                writer.append(String.valueOf(result.repeats)).append(",");
+                writer.append(String.valueOf(result.runBudgetS)).append(",");
+                writer.append(String.valueOf(result.budgetExceeded)).append(",");
+                writer.append(String.valueOf(result.solved)).append(",");
+                writer.append(String.valueOf(result.generations)).append(",");
+                writer.append(String.valueOf(result.evaluations)).append(",");
+                writer.append(formatTime(result.timeToSolutionMs)).append(",");
+                writer.append(formatTime(result.minTimeToSolutionMs)).append(",");
+                writer.append(String.valueOf(result.peakHeapUpperBoundBytes)).append(",");
+                writer.append(String.valueOf(result.allocatedBytes)).append(",");
+                writer.append(String.valueOf(result.allocationRateMbPerSecond)).append("\n");
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing benchmark report to CSV: " + e.getMessage());
+            throw e;
+        }
+    }//writeReport
+
+    /**
+     * This method reads a report written by writeReport.
+     *
+     * @param filePath The path to the CSV file.
+     * @return The benchmark results in the file.
+     * @throws IOException If an I/O error occurs or a row cannot be parsed.
+     */
+    public static List<BenchmarkResult> readReport(String filePath) throws IOException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("Engine")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    BenchmarkResult result = new BenchmarkResult();
+                    result.engine = fields[0];
+                    result.selection = fields[1];
+                    result.textLength = Integer.parseInt(fields[2]);
+                    result.keyLength = Integer.parseInt(fields[3]);
+                    result.seed = Long.parseLong(fields[4]);
+                    result.population = Integer.parseInt(fields[5]);
+                    result.maxGenerations = Integer.parseInt(fields[6]);
+                    result.crossoverRate = Double.parseDouble(fields[7]);
+                    result.mutationRate = Double.parseDouble(fields[8]);
+                    result.tournamentSize = Integer.parseInt(fields[9]);
+                    result.warmup = Integer.parseInt(fields[10]);
+                    result.repeats = Integer.parseInt(fields[11]);
+                    result.runBudgetS = Integer.parseInt(fields[12]);
+                    result.budgetExceeded = Boolean.parseBoolean(fields[13]);
+                    result.solved = Boolean.parseBoolean(fields[14]);
+                    result.generations = Integer.parseInt(fields[15]);
+                    result.evaluations = Long.parseLong(fields[16]);
+                    result.timeToSolutionMs = parseTime(fields[17]);
+                    result.minTimeToSolutionMs = parseTime(fields[18]);
+                    result.peakHeapUpperBoundBytes = Long.parseLong(fields[19]);
+                    result.allocatedBytes = Long.parseLong(fields[20]);
+                    result.allocationRateMbPerSecond = Double.parseDouble(fields[21]);
+                    results.add(result);
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    throw new IOException("Invalid row " + lineNumber + " in the file: " + filePath);
+                }
+            }
+        }
+        return results;
+    }//readReport
+
+    private static String formatTime(double timeMs) {
+        return Double.isNaN(timeMs) ? "" : String.valueOf(timeMs);
+    }//formatTime
+
+    private static double parseTime(String field) {
+        return field.isBlank() ? Double.NaN : Double.parseDouble(field);
+    }//parseTime
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public String getSelection() {
+        return selection;
+    }
+
+    public void setSelection(String selection) {
+        this.selection = selection;
+    }
+
+    public int getTextLength() {
+        return textLength;
+    }
+
+    public void setTextLength(int textLength) {
+        this.textLength = textLength;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    public void setKeyLength(int keyLength) {
+        this.keyLength = keyLength;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getPopulation() {
+        return population;
+    }
+
+    public void setPopulation(int population) {
+        this.population = population;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    public double getCrossoverRate() {
+        return crossoverRate;
+    }
+
+    public void setCrossoverRate(double crossoverRate) {
+        this.crossoverRate = crossoverRate;
+    }
+
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    public void setMutationRate(double mutationRate) {
+        this.mutationRate = mutationRate;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public void setTournamentSize(int tournamentSize) {
+        this.tournamentSize = tournamentSize;
+    }
+
+    public int getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(int warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getRepeats() {
+        return repeats;
+    }
+
+    public void setRepeats(int repeats) {
+        this.repeats = repeats;
+    }
+
+    public int getRunBudgetS() {
+        return runBudgetS;
+    }
+
+    public void setRunBudgetS(int runBudgetS) {
+        this.runBudgetS = runBudgetS;
+    }
+
+    /**
+     * @return True if a run of the case stopped because it exceeded the run budget.
+     */
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    public void setBudgetExceeded(boolean budgetExceeded) {
+        this.budgetExceeded = budgetExceeded;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public void setSolved(boolean solved) {
+        this.solved = solved;
+    }
+
+    public int getGenerations() {
+        return generations;
+    }
+
+    public void setGenerations(int generations) {
+        this.generations = generations;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * @return The median time to solution over the repeated runs, or NaN if the case was not solved.
+     */
+    public double getTimeToSolutionMs() {
+        return timeToSolutionMs;
+    }
+
+    public void setTimeToSolutionMs(double timeToSolutionMs) {
+        this.timeToSolutionMs = timeToSolutionMs;
+    }
+
+    public double getMinTimeToSolutionMs() {
+        return minTimeToSolutionMs;
+    }
+
+    public void setMinTimeToSolutionMs(double minTimeToSolutionMs) {
+        this.minTimeToSolutionMs = minTimeToSolutionMs;
+    }
+
+    /**
+     * @return The sum of the peak usage of each heap pool, an upper bound of the peak heap.
+     */
+    public long getPeakHeapUpperBoundBytes() {
+        return peakHeapUpperBoundBytes;
+    }
+
+    public void setPeakHeapUpperBoundBytes(long peakHeapUpperBoundBytes) {
+        this.peakHeapUpperBoundBytes = peakHeapUpperBoundBytes;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public double getAllocationRateMbPerSecond() {
+        return allocationRateMbPerSecond;
+    }
+
+    public void setAllocationRateMbPerSecond(double allocationRateMbPerSecond) {
+        this.allocationRateMbPerSecond = allocationRateMbPerSecond;
+    }
+}//BenchmarkResult
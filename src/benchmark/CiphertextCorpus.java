@@ -0,0 +1,121 @@
+package benchmark;
+
+import ga.Evaluation;
+import ga.sampling.AliasTable;
+
+import java.util.Random;
+
+/**
+ * This class generates a seeded synthetic corpus of plaintext, key and ciphertext triples for
+ * benchmarking. Plaintext letters are drawn from the English letter frequencies the fitness
+ * function expects, keys are uniformly random letters, and the ciphertext is produced with
+ * Evaluation.encrypt, so each sample has a known correct key.
+ *
+ */
+public class CiphertextCorpus {
+
+    /**
+     * Text is encrypted in chunks of about this many characters. Evaluation.encrypt builds its
+     * result by string concatenation, which is quadratic in the text length; chunks that are a
+     * multiple of the key length keep the key aligned and the total cost linear.
+     */
+    private static final int CHUNK_LENGTH = 1024;
+
+    /** The same expected English letter frequencies (a to z) used by Evaluation.fitness. */
+    private static final double[] ENGLISH_FREQUENCIES = {
+            0.085, 0.016, 0.0316, 0.0387, 0.121, 0.0218, 0.0209, 0.0496, 0.0733, 0.0022,
+            0.0081, 0.0421, 0.0253, 0.0717, 0.0747, 0.0207, 0.001, 0.0633, 0.0673, 0.0894,
+            0.0268, 0.0106, 0.0183, 0.0019, 0.0172, 0.0011
+    };
+
+    /**
+     * This class holds one generated sample.
+     */
+    public static class Sample {
+        private final int textLength;
+        private final int keyLength;
+        private final long seed;
+        private final String plaintext;
+        private final String key;
+        private final String ciphertext;
+
+        Sample(int textLength, int keyLength, long seed, String plaintext, String key, String ciphertext) {
+            this.textLength = textLength;
+            this.keyLength = keyLength;
+            this.seed = seed;
+            this.plaintext = plaintext;
+            this.key = key;
+            this.ciphertext = ciphertext;
+        }
+
+        public int getTextLength() {
+            return textLength;
+        }
+
+        public int getKeyLength() {
+            return keyLength;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public String getPlaintext() {
+            return plaintext;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getCiphertext() {
+            return ciphertext;
+        }
+    }//Sample
+
+    /**
+     * This method generates one sample. The same arguments always produce the same sample.
+     *
+     * @param textLength The number of letters in the plaintext.
+     * @param keyLength  The number of letters in the key.
+     * @param seed       The corpus seed.
+     * @return The generated sample.
+     */
+    public static Sample generate(int textLength, int keyLength, long seed) {
+        if (textLength <= 0 || keyLength <= 0) {
+            throw new IllegalArgumentException("Text and key length must be positive");
+        }
+        Random random = new Random(seed * 1_000_003L + textLength * 101L + keyLength);
+        AliasTable letters = new AliasTable(ENGLISH_FREQUENCIES);
+
+        char[] key = new char[keyLength];
+        for (int i = 0; i < keyLength; i++) {
+            key[i] = (char) ('a' + random.nextInt(26));
+        }
+
+        char[] plain = new char[textLength];
+        for (int i = 0; i < textLength; i++) {
+            plain[i] = (char) ('a' + letters.sample(random));
+        }
+
+        String keyText = new String(key);
+        String plaintext = new String(plain);
+        return new Sample(textLength, keyLength, seed, plaintext, keyText, encrypt(keyText, plaintext));
+    }//generate
+
+    /**
+     * This method encrypts the text chunk by chunk with Evaluation.encrypt.
+     *
+     * @param key  The encryption key.
+     * @param text The plaintext.
+     * @return The ciphertext.
+     */
+    private static String encrypt(String key, String text) {
+        int chunk = Math.max(1, CHUNK_LENGTH / key.length()) * key.length();
+        StringBuilder cipher = new StringBuilder(text.length());
+        for (int start = 0; start < text.length(); start += chunk) {
+            cipher.append(Evaluation.encrypt(key, text.substring(start, Math.min(text.length(), start + chunk))));
+        }
+        return cipher.toString();
+    }//encrypt
+}//CiphertextCorpus
@@ -0,0 +1,506 @@
+package benchmark;
+
+import ga.GeneticAlgorithm;
+import ga.OffHeapPopulation;
+import ga.sampling.SelectionScheme;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an end-to-end benchmark of the genetic algorithm. For every combination of
+ * text length and key length it generates a seeded sample with CiphertextCorpus, runs the full
+ * genetic algorithm until the best candidate is the correct key (or the generation limit is
+ * reached), and records the time and evaluations needed, an upper bound of the peak heap and
+ * the allocation rate in a CSV report. The time to solution is only recorded for solved cases. Each case is run a number of warmup times that are discarded, then repeated;
+ * the report holds the median and minimum time and the median memory figures of the repeats.
+ * A second mode compares two reports and flags regressions. Wall time is noisier than the
+ * other metrics, so it is held to its own, wider threshold. Cases are matched on engine,
+ * selection scheme, text length, key length and seed; with --across engine or --across
+ * selection that dimension is left out of the match, so for example a heap report can be
+ * compared with an off-heap report of the same samples. Matched cases whose other run
+ * parameters differ are reported as mismatches instead of being compared.
+ *
+ * Cost: one fitness evaluation decrypts and scores the whole text, so it grows with the text
+ * length; it takes roughly 1 ms at 10,000 letters, 2.5 ms at 100,000 and 13-55 ms at
+ * 1,000,000 letters depending on the machine. A case that is not solved runs population x
+ * (max generations + 1) evaluations, 100,100 with the defaults, in each of its warmup and
+ * repeated runs, which is hours at 1,000,000 letters and days at 10,000,000. The default suite
+ * therefore stops at 100,000 letters and every run has a time budget (--run-budget-s, 30 s by
+ * default, 0 for none). A run that exceeds it stops, is marked as over budget, and the case
+ * is not run again, so each of the 15 default cases takes at most 6 x 30 s and the default
+ * suite at most 45 minutes, usually far less. Longer texts can be requested with
+ * --text-lengths, for example --text-lengths 1000000,10000000.
+ *
+ * Usage:
+ *   java benchmark.EndToEndBenchmark run report.csv [--text-lengths 1000,10000,100000] [--key-lengths 5,10]
+ *        [--seed 1] [--population 100] [--max-generations 1000] [--crossover-rate 0.9]
+ *        [--mutation-rate 0.1] [--tournament-size 3] [--engine heap|offheap]
+ *        [--selection tournament|rank|sus] [--warmup 1] [--repeats 5] [--run-budget-s 30]
+ *   java benchmark.EndToEndBenchmark compare baseline.csv candidate.csv [--threshold 0.1]
+ *        [--time-threshold 0.25] [--across engine|selection]
+ *
+ */
+public class EndToEndBenchmark {
+
+    private static final int[] DEFAULT_TEXT_LENGTHS = {1_000, 10_000, 100_000};
+    private static final int[] DEFAULT_KEY_LENGTHS = {5, 10, 25, 50, 100};
+    private static final double DEFAULT_REGRESSION_THRESHOLD = 0.10;
+    private static final double DEFAULT_TIME_REGRESSION_THRESHOLD = 0.25;
+
+    private int[] textLengths = DEFAULT_TEXT_LENGTHS;
+    private int[] keyLengths = DEFAULT_KEY_LENGTHS;
+    private long seed = 1;
+    private int population = 100;
+    private int maxGenerations = 1000;
+    private double crossoverRate = 0.9;
+    private double mutationRate = 0.1;
+    private int tournamentSize = 3;
+    private String engine = "heap";
+    private SelectionScheme selection = SelectionScheme.TOURNAMENT;
+    private int warmup = 1;
+    private int repeats = 5;
+    private int runBudgetS = 30;
+    private long runDeadline;
+    private OffHeapPopulation offHeapPopulation;
+    private OffHeapPopulation offHeapNewPopulation;
+
+    /**
+     * This class holds the progress and measurements of a single genetic algorithm run.
+     */
+    private static class RunOutcome {
+        boolean solved;
+        int generations;
+        long evaluations;
+        double elapsedMs;
+        long peakHeapUpperBoundBytes;
+        long allocatedBytes;
+        boolean budgetExceeded;
+    }//RunOutcome
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("run")) {
+            EndToEndBenchmark benchmark = new EndToEndBenchmark();
+            benchmark.parseOptions(args, 2);
+            List<BenchmarkResult> results = benchmark.runAll();
+            BenchmarkResult.writeReport(results, args[1]);
+            System.out.println("Benchmark report has been written to " + args[1]);
+        } else if (args.length >= 3 && args[0].equals("compare")) {
+            double threshold = DEFAULT_REGRESSION_THRESHOLD;
+            double timeThreshold = DEFAULT_TIME_REGRESSION_THRESHOLD;
+            String across = null;
+            for (int i = 3; i < args.length - 1; i += 2) {
+                switch (args[i]) {
+                    case "--threshold": threshold = Double.parseDouble(args[i + 1]); break;
+                    case "--time-threshold": timeThreshold = Double.parseDouble(args[i + 1]); break;
+                    case "--across": across = args[i + 1]; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (across != null && !across.equals("engine") && !across.equals("selection")) {
+                throw new IllegalArgumentException("Compare across must be engine or selection: " + across);
+            }
+            int regressions = compare(BenchmarkResult.readReport(args[1]), BenchmarkResult.readReport(args[2]),
+                    threshold, timeThreshold, across);
+            System.out.println(regressions + " regression(s) found.");
+            if (regressions > 0) {
+                System.exit(1);
+            }
+        } else {
+            System.err.println("Usage: EndToEndBenchmark run <report.csv> [options]");
+            System.err.println("       EndToEndBenchmark compare <baseline.csv> <candidate.csv> [options]");
+            System.exit(2);
+        }
+    }//main
+
+    /**
+     * This method reads the optional command line settings of the run mode.
+     *
+     * @param args  The command line arguments.
+     * @param start The index of the first option.
+     */
+    private void parseOptions(String[] args, int start) {
+        for (int i = start; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--text-lengths": textLengths = parseList(value); break;
+                case "--key-lengths": keyLengths = parseList(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--population": population = Integer.parseInt(value); break;
+                case "--max-generations": maxGenerations = Integer.parseInt(value); break;
+                case "--crossover-rate": crossoverRate = Double.parseDouble(value); break;
+                case "--mutation-rate": mutationRate = Double.parseDouble(value); break;
+                case "--tournament-size": tournamentSize = Integer.parseInt(value); break;
+                case "--engine": engine = value; break;
+                case "--selection": selection = SelectionScheme.parse(value); break;
+                case "--warmup": warmup = Integer.parseInt(value); break;
+                case "--repeats": repeats = Integer.parseInt(value); break;
+                case "--run-budget-s": runBudgetS = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (population <= 0 || population % 2 != 0) {
+            throw new IllegalArgumentException("Population size must be a positive even number");
+        }
+        if (warmup < 0 || repeats <= 0 || runBudgetS < 0) {
+            throw new IllegalArgumentException("Warmup and run budget must not be negative and repeats must be positive");
+        }
+        if (!engine.equals("heap") && !engine.equals("offheap")) {
+            throw new IllegalArgumentException("Engine must be heap or offheap: " + engine);
+        }
+    }//parseOptions
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }//parseList
+
+    /**
+     * This method runs every combination of text length and key length.
+     *
+     * @return The results of all cases.
+     */
+    private List<BenchmarkResult> runAll() {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (int textLength : textLengths) {
+            for (int keyLength : keyLengths) {
+                BenchmarkResult result = runCase(CiphertextCorpus.generate(textLength, keyLength, seed));
+                System.out.println("Text length: " + textLength + " - Key length: " + keyLength
+                        + " - Solved: " + result.isSolved() + " - Generations: " + result.getGenerations()
+                        + (result.isSolved()
+                                ? " - Median time: " + result.getTimeToSolutionMs() + " ms"
+                                        + " - Min time: " + result.getMinTimeToSolutionMs() + " ms"
+                                : "")
+                        + (result.isBudgetExceeded() ? " - Run budget exceeded" : ""));
+                results.add(result);
+            }
+        }
+        return results;
+    }//runAll
+
+    /**
+     * This method runs the genetic algorithm on one sample the configured number of warmup
+     * times, then measures the configured number of repeats. Every run uses the sample seed,
+     * so the repeats differ only in timing and memory noise. Once a run exceeds the run budget
+     * the case is not run again, and the result holds the runs measured so far (the over-budget
+     * run itself if it was a warmup run).
+     *
+     * @param sample The sample to recover the key of.
+     * @return The measurements of the case.
+     */
+    private BenchmarkResult runCase(CiphertextCorpus.Sample sample) {
+        new GeneticAlgorithm(population, mutationRate, tournamentSize, sample.getKeyLength(), sample.getCiphertext(), selection);
+        if (engine.equals("offheap")
+                && (offHeapPopulation == null || offHeapPopulation.getChromosomeLength() != sample.getKeyLength())) {
+            offHeapPopulation = new OffHeapPopulation(population, sample.getKeyLength());
+            offHeapNewPopulation = new OffHeapPopulation(population, sample.getKeyLength());
+        }
+
+        List<RunOutcome> outcomes = new ArrayList<>();
+        for (int i = 0; i < warmup + repeats; i++) {
+            RunOutcome outcome = measureRun(sample);
+            if (i >= warmup || outcome.budgetExceeded) {
+                outcomes.add(outcome);
+            }
+            if (outcome.budgetExceeded) {
+                break;
+            }
+        }
+        double[] times = new double[outcomes.size()];
+        double[] peakHeaps = new double[outcomes.size()];
+        double[] allocations = new double[outcomes.size()];
+        for (int i = 0; i < outcomes.size(); i++) {
+            times[i] = outcomes.get(i).elapsedMs;
+            peakHeaps[i] = outcomes.get(i).peakHeapUpperBoundBytes;
+            allocations[i] = outcomes.get(i).allocatedBytes;
+        }
+        RunOutcome outcome = outcomes.get(outcomes.size() - 1);
+        // median sorts in place, so the fastest repeat is first afterwards
+        double medianMs = median(times);
+        double minMs = times[0];
+        long allocated = (long) median(allocations);
+
+        BenchmarkResult result = new BenchmarkResult();
+        result.setEngine(engine);
+        result.setSelection(selection.getName());
+        result.setTextLength(sample.getTextLength());
+        result.setKeyLength(sample.getKeyLength());
+        result.setSeed(sample.getSeed());
+        result.setPopulation(population);
+        result.setMaxGenerations(maxGenerations);
+        result.setCrossoverRate(crossoverRate);
+        result.setMutationRate(mutationRate);
+        result.setTournamentSize(selection.recordedTournamentSize(tournamentSize));
+        result.setWarmup(warmup);
+        result.setRepeats(repeats);
+        result.setRunBudgetS(runBudgetS);
+        result.setBudgetExceeded(outcome.budgetExceeded);
+        result.setSolved(outcome.solved);
+        result.setGenerations(outcome.generations);
+        result.setEvaluations(outcome.evaluations);
+        result.setTimeToSolutionMs(outcome.solved ? medianMs : Double.NaN);
+        result.setMinTimeToSolutionMs(outcome.solved ? minMs : Double.NaN);
+        result.setPeakHeapUpperBoundBytes((long) median(peakHeaps));
+        result.setAllocatedBytes(allocated);
+        result.setAllocationRateMbPerSecond(
+                allocated < 0 ? -1 : allocated / (1024.0 * 1024.0) / (medianMs / 1000.0));
+        return result;
+    }//runCase
+
+    /**
+     * This method runs the genetic algorithm once on a sample and measures the wall time, the
+     * peak heap and the bytes allocated by the run. The peak heap is the sum of the peak usage
+     * of each heap pool; the pools peak at different moments, so it is an upper bound of the
+     * true peak rather than the peak itself.
+     *
+     * @param sample The sample to recover the key of.
+     * @return The outcome and measurements of the run.
+     */
+    private RunOutcome measureRun(CiphertextCorpus.Sample sample) {
+        GeneticAlgorithm.setSeed(sample.getSeed());
+
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+        System.gc();
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        runDeadline = start + runBudgetS * 1_000_000_000L;
+
+        RunOutcome outcome = engine.equals("offheap") ? runOffHeap(sample) : runHeap(sample);
+
+        outcome.elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        outcome.allocatedBytes = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        for (MemoryPoolMXBean pool : heapPools) {
+            outcome.peakHeapUpperBoundBytes += pool.getPeakUsage().getUsed();
+        }
+        return outcome;
+    }//measureRun
+
+    /**
+     * This method sorts the values in place and returns their median.
+     *
+     * @param values The values, at least one.
+     * @return The median of the values.
+     */
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }//median
+
+    /**
+     * This method runs the genetic algorithm on a char[][] population with
+     * GeneticAlgorithm.runGeneration, the generation step Main.runGeneticAlgorithm uses,
+     * stopping as soon as the best candidate is the correct key.
+     *
+     * @param sample The sample to recover the key of.
+     * @return The outcome of the run.
+     */
+    private RunOutcome runHeap(CiphertextCorpus.Sample sample) {
+        RunOutcome outcome = new RunOutcome();
+
+        char[][] population = GeneticAlgorithm.initializePopulation();
+        double[] fitnessValues = GeneticAlgorithm.evaluatePopulation(population);
+        char[][] newPopulation = new char[this.population][sample.getKeyLength()];
+        double[] newFitnessValues = new double[this.population];
+        int bestIndex = GeneticAlgorithm.findBestSolutionIndex(fitnessValues);
+        outcome.evaluations = this.population;
+
+        for (int gen = 1; gen <= maxGenerations; gen++) {
+            if (GeneticAlgorithm.isSolution(population, bestIndex, sample.getKey())) {
+                break;
+            }
+            if (runBudgetS > 0 && System.nanoTime() - runDeadline > 0) {
+                outcome.budgetExceeded = true;
+                break;
+            }
+            bestIndex = GeneticAlgorithm.runGeneration(
+                    population, fitnessValues, newPopulation, newFitnessValues, crossoverRate);
+            outcome.evaluations += this.population;
+            outcome.generations = gen;
+
+            char[][] tempPopulation = population;
+            population = newPopulation;
+            newPopulation = tempPopulation;
+            double[] tempFitnessValues = fitnessValues;
+            fitnessValues = newFitnessValues;
+            newFitnessValues = tempFitnessValues;
+        }
+        outcome.solved = GeneticAlgorithm.isSolution(population, bestIndex, sample.getKey());
+        return outcome;
+    }//runHeap
+
+    /**
+     * This method runs the genetic algorithm on an off-heap population with
+     * GeneticAlgorithm.runGeneration, the generation step Main.runGeneticAlgorithmOffHeap uses,
+     * stopping as soon as the best candidate is the correct key. The two off-heap stores are
+     * allocated once per key length and reused by every run, like Main does across its runs.
+     *
+     * @param sample The sample to recover the key of.
+     * @return The outcome of the run.
+     */
+    private RunOutcome runOffHeap(CiphertextCorpus.Sample sample) {
+        RunOutcome outcome = new RunOutcome();
+
+        OffHeapPopulation population = offHeapPopulation;
+        OffHeapPopulation newPopulation = offHeapNewPopulation;
+        GeneticAlgorithm.initializePopulation(population);
+        GeneticAlgorithm.evaluatePopulation(population);
+        int bestIndex = GeneticAlgorithm.findBestSolutionIndex(population);
+        outcome.evaluations = this.population;
+
+        for (int gen = 1; gen <= maxGenerations; gen++) {
+            if (GeneticAlgorithm.isSolution(population, bestIndex, sample.getKey())) {
+                break;
+            }
+            if (runBudgetS > 0 && System.nanoTime() - runDeadline > 0) {
+                outcome.budgetExceeded = true;
+                break;
+            }
+            bestIndex = GeneticAlgorithm.runGeneration(population, newPopulation, crossoverRate);
+            outcome.evaluations += this.population;
+            outcome.generations = gen;
+
+            OffHeapPopulation temp = population;
+            population = newPopulation;
+            newPopulation = temp;
+        }
+        outcome.solved = GeneticAlgorithm.isSolution(population, bestIndex, sample.getKey());
+        return outcome;
+    }//runOffHeap
+
+    /**
+     * This method returns the number of bytes allocated by the current thread so far.
+     *
+     * @return The allocated bytes, or -1 if the JVM does not support measuring them.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }//allocatedBytes
+
+    /**
+     * This method compares a candidate report with a baseline report case by case and prints
+     * every regression. A case regresses when it is missing from the candidate, when it is no
+     * longer solved, when its median time to solution grows by more than the time threshold
+     * (only compared when both sides are solved), or when its evaluations, peak heap upper
+     * bound or allocated bytes grow by more than the threshold. A matched case
+     * whose run parameters differ is not compared and counts as a mismatch; the metrics of a
+     * case that exceeded its run budget on either side are not compared.
+     *
+     * @param baseline      The results of the baseline report.
+     * @param candidate     The results of the candidate report.
+     * @param threshold     The allowed relative increase, for example 0.1 for 10%.
+     * @param timeThreshold The allowed relative increase of the median time.
+     * @param across        The dimension being compared (engine or selection), left out when
+     *                      matching cases, or null to match on both.
+     * @return The number of regressions and mismatches found.
+     */
+    static int compare(List<BenchmarkResult> baseline, List<BenchmarkResult> candidate,
+                       double threshold, double timeThreshold, String across) {
+        Map<String, BenchmarkResult> baselineByCase = indexByCase(baseline, across, "baseline");
+        Map<String, BenchmarkResult> candidateByCase = indexByCase(candidate, across, "candidate");
+
+        int regressions = 0;
+        for (BenchmarkResult before : baseline) {
+            if (!candidateByCase.containsKey(before.getCaseKey(across))) {
+                System.out.println("MISSING    " + before.getCaseKey() + " - not in the candidate report");
+                regressions++;
+            }
+        }
+        for (BenchmarkResult after : candidate) {
+            BenchmarkResult before = baselineByCase.get(after.getCaseKey(across));
+            if (before == null) {
+                System.out.println("NEW        " + after.getCaseKey());
+                continue;
+            }
+            String caseKey = before.getCaseKey().equals(after.getCaseKey())
+                    ? after.getCaseKey() : before.getCaseKey() + " vs " + after.getCaseKey();
+            String differences = before.getParameterDifferences(after);
+            if (!differences.isEmpty()) {
+                System.out.println("MISMATCH   " + caseKey + " - run parameters differ: " + differences);
+                regressions++;
+                continue;
+            }
+            if (before.isSolved() && !after.isSolved()) {
+                System.out.println("REGRESSION " + caseKey + " - no longer solved");
+                regressions++;
+                continue;
+            }
+            if (before.isBudgetExceeded() || after.isBudgetExceeded()) {
+                System.out.println("SKIPPED    " + caseKey + " - run budget exceeded, metrics are not comparable");
+                continue;
+            }
+            if (before.isSolved() && after.isSolved()) {
+                regressions += check(caseKey, "median time ms", before.getTimeToSolutionMs(), after.getTimeToSolutionMs(), timeThreshold);
+            }
+            regressions += check(caseKey, "evaluations", before.getEvaluations(), after.getEvaluations(), threshold);
+            regressions += check(caseKey, "peak heap upper bound bytes", before.getPeakHeapUpperBoundBytes(), after.getPeakHeapUpperBoundBytes(), threshold);
+            regressions += check(caseKey, "allocated bytes", before.getAllocatedBytes(), after.getAllocatedBytes(), threshold);
+        }
+        return regressions;
+    }//compare
+
+    /**
+     * This method indexes the results of a report by case key.
+     *
+     * @param results The results of the report.
+     * @param across  The dimension left out of the case key, or null.
+     * @param name    The name of the report, used in the error message.
+     * @return The results by case key.
+     * @throws IllegalArgumentException If two results of the report have the same case key.
+     */
+    private static Map<String, BenchmarkResult> indexByCase(List<BenchmarkResult> results, String across, String name) {
+        Map<String, BenchmarkResult> byCase = new HashMap<>();
+        for (BenchmarkResult result : results) {
+            if (byCase.put(result.getCaseKey(across), result) != null) {
+                throw new IllegalArgumentException("The " + name + " report has more than one result for case "
+                        + result.getCaseKey(across) + "; compare reports with a single "
+                        + (across == null ? "run per case" : across));
+            }
+        }
+        return byCase;
+    }//indexByCase
+
+    private static int check(String caseKey, String metric, double before, double after, double threshold) {
+        if (before < 0 || after < 0) {
+            return 0;
+        }
+        double change = before > 0 ? (after - before) / before : (after > 0 ? Double.POSITIVE_INFINITY : 0);
+        String line = caseKey + " - " + metric + ": " + before + " -> " + after
+                + " (" + String.format("%+.1f%%", change * 100) + ")";
+        if (change > threshold) {
+            System.out.println("REGRESSION " + line);
+            return 1;
+        }
+        if (change < -threshold) {
+            System.out.println("IMPROVED   " + line);
+        }
+        return 0;
+    }//check
+}//EndToEndBenchmark
@@ -1,7 +1,14 @@
 package ga;
 
+import ga.sampling.AliasTable;
+import ga.sampling.RankSelector;
+import ga.sampling.SelectionScheme;
+import ga.sampling.StochasticUniversalSampler;
+import ga.sampling.TournamentSelector;
+
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class represents a genetic algorithm that solves the problem of finding
@@ -13,21 +20,52 @@ import java.util.concurrent.ThreadLocalRandom;
 public class GeneticAlgorithm {
 
     private static final Random random = new Random();
+    private static final double RANK_SELECTION_PRESSURE = 1.5;
     private static int POP_SIZE, TOURNAMENT_SIZE, CHROMOSOME_LENGTH;
     private static double  MUTATION_RATE;
     private static String ENCRYPTED_TEXT;
+    private static SelectionScheme SELECTION_SCHEME;
+    private static TournamentSelector TOURNAMENT_SELECTOR;
+    private static RankSelector RANK_SELECTOR;
+    private static StochasticUniversalSampler SUS_SELECTOR;
+    private static int[] SUS_SELECTED;
+    private static int SUS_CURSOR;
+    private static DoubleBuffer SELECTION_FITNESS;
 
     public GeneticAlgorithm(
             int popSize, double mutationRate, int tournamentSize,
             int chromosomeLength, String encryptedText
+    ){
+        this(popSize, mutationRate, tournamentSize, chromosomeLength, encryptedText, SelectionScheme.TOURNAMENT);
+    }//Constructor
+
+    public GeneticAlgorithm(
+            int popSize, double mutationRate, int tournamentSize,
+            int chromosomeLength, String encryptedText, SelectionScheme selectionScheme
     ){
         POP_SIZE = popSize;
         MUTATION_RATE = mutationRate;
         TOURNAMENT_SIZE = tournamentSize;
         CHROMOSOME_LENGTH = chromosomeLength;
         ENCRYPTED_TEXT = encryptedText;
+        SELECTION_SCHEME = selectionScheme;
+        TOURNAMENT_SELECTOR = new TournamentSelector(tournamentSize);
+        RANK_SELECTOR = new RankSelector(RANK_SELECTION_PRESSURE);
+        SUS_SELECTOR = new StochasticUniversalSampler();
+        SUS_SELECTED = new int[popSize];
+        SELECTION_FITNESS = null;
     }//Constructor
 
+    /**
+     * This method seeds the random number generator used by the genetic operators, so that
+     * runs can be repeated.
+     *
+     * @param seed The seed for the random number generator.
+     */
+    public static void setSeed(long seed) {
+        random.setSeed(seed);
+    }//setSeed
+
     /**
      * This method performs one-point crossover operation between two parent solutions to create
      * two child solutions.
@@ -81,7 +119,7 @@ public class GeneticAlgorithm {
      */
     public static void scrambleMutation(char[] chromosome) {
         int startIndex = random.nextInt(CHROMOSOME_LENGTH);
-        int endIndex = ThreadLocalRandom.current().nextInt(startIndex, CHROMOSOME_LENGTH);
+        int endIndex = startIndex + random.nextInt(CHROMOSOME_LENGTH - startIndex);
         char[] subset = new char[endIndex - startIndex + 1];
 
         for (int i = startIndex, j = 0; i <= endIndex; i++, j++) {
@@ -144,42 +182,32 @@ public class GeneticAlgorithm {
      */
     public static char[][] initializePopulation() {
         char[][] population = new char[POP_SIZE][CHROMOSOME_LENGTH];
-        int[] characterFrequencies = calculateCharacterFrequencies(ENCRYPTED_TEXT);
+        AliasTable characterTable = new AliasTable(calculateCharacterFrequencies(ENCRYPTED_TEXT));
 
         for (int i = 0; i < POP_SIZE; i++) {
             for (int j = 0; j < CHROMOSOME_LENGTH; j++) {
-                population[i][j] = getRandomCharBasedOnFrequencies(characterFrequencies);
+                population[i][j] = getRandomCharBasedOnFrequencies(characterTable);
             }
         }
         return population;
     }//initializePopulation
 
     /**
-     * This method generates a random character based on the given frequencies.
+     * This method generates a random character based on the character frequencies captured in
+     * an alias table, in constant time per character.
      *
-     * @param frequencies An array representing the frequencies of characters.
+     * @param characterTable An alias table built from the frequencies of the characters a to z.
      * @return A randomly selected character based on the provided frequencies.
      */
-    private static char getRandomCharBasedOnFrequencies(int[] frequencies) {
-        int totalFrequency = 0;
-        for (int frequency : frequencies) {
-            totalFrequency += frequency;
-        }
-
-        int randomValue = random.nextInt(totalFrequency) + 1;
-        int cumulativeFrequency = 0;
-
-        for (int i = 0; i < frequencies.length; i++) {
-            cumulativeFrequency += frequencies[i];
-            if (randomValue <= cumulativeFrequency) {
-                return (char) ('a' + i);
-            }
-        }
-        return 'a';
+    private static char getRandomCharBasedOnFrequencies(AliasTable characterTable) {
+        return (char) ('a' + characterTable.sample(random));
     }//getRandomCharBasedOnFrequencies
 
     /**
      * This method evaluates the fitness of each candidate solution in the given population.
+     * Evaluation.fitness decrypts the text with the key itself, so it is given the encrypted
+     * text directly; this is the same score the off-heap population and the children of each
+     * generation are given.
      *
      * @param population The population of candidate solutions to be evaluated.
      * @return An array containing the fitness values for each candidate solution.
@@ -187,46 +215,70 @@ public class GeneticAlgorithm {
     public static double[] evaluatePopulation(char[][] population) {
         double[] fitnessValues = new double[POP_SIZE];
         for (int i = 0; i < POP_SIZE; i++) {
-            String key = new String(population[i]);
-            String decryptedText = Evaluation.decrypt(key, ENCRYPTED_TEXT);
-
-            if (decryptedText != null) {
-                fitnessValues[i] = Evaluation.fitness(key, decryptedText);
-            } else {
-                fitnessValues[i] = Double.MAX_VALUE;
-            }
+            fitnessValues[i] = Evaluation.fitness(new String(population[i]), ENCRYPTED_TEXT);
         }
         return fitnessValues;
     }//evaluatePopulation
 
     /**
-     * This method selects a parent solution from the given population using tournament
-     * selection. it involves randomly selecting a subset of
-     * candidates and choosing the best candidate from the subset based on their
-     * fitness values.
+     * This method prepares parent selection for a generation. It must be called once per
+     * generation, after the fitness values are known and before selectParentIndex; the rank
+     * and stochastic universal sampling schemes build their cumulative tables here.
      *
-     * @param population     The population of candidate solutions.
      * @param fitnessValues  The fitness values corresponding to each candidate
      *                       solution.
-     * @return The selected parent solution.
      */
-    public static char[] selectParent(char[][] population, double[] fitnessValues) {
-        int tournamentSize = TOURNAMENT_SIZE;
-        int[] tournamentIndices = new int[tournamentSize];
+    public static void prepareSelection(double[] fitnessValues) {
+        prepareSelection(DoubleBuffer.wrap(fitnessValues));
+    }//prepareSelection
 
-        for (int i = 0; i < tournamentSize; i++) {
-            tournamentIndices[i] = random.nextInt(POP_SIZE);
-        }
+    /**
+     * This method prepares parent selection for a generation of an off-heap population. It
+     * must be called once per generation, after the fitness values are known and before
+     * selectParentIndex.
+     *
+     * @param population The off-heap population of candidate solutions.
+     */
+    public static void prepareSelection(OffHeapPopulation population) {
+        prepareSelection(population.getFitnessValues());
+    }//prepareSelection
 
-        int bestIndex = tournamentIndices[0];
-        for (int i = 1; i < tournamentSize; i++) {
-            if (fitnessValues[tournamentIndices[i]] < fitnessValues[bestIndex]) {
-                bestIndex = tournamentIndices[i];
-            }
+    private static void prepareSelection(DoubleBuffer fitnessValues) {
+        SELECTION_FITNESS = fitnessValues;
+        switch (SELECTION_SCHEME) {
+            case RANK:
+                RANK_SELECTOR.prepare(fitnessValues);
+                break;
+            case SUS:
+                SUS_SELECTOR.prepare(fitnessValues);
+                SUS_SELECTOR.select(SUS_SELECTED.length, random, SUS_SELECTED);
+                SUS_CURSOR = 0;
+                break;
+            default:
+                break;
         }
+    }//prepareSelection
 
-        return population[bestIndex].clone();
-    }//selectParent
+    /**
+     * This method selects a parent solution with the configured selection scheme and returns
+     * its index, so the caller can read the chromosome in place instead of receiving a copy.
+     *
+     * @return The index of the selected parent solution.
+     * @throws IllegalStateException If prepareSelection has not been called.
+     */
+    public static int selectParentIndex() {
+        if (SELECTION_FITNESS == null) {
+            throw new IllegalStateException("prepareSelection must be called before selectParentIndex");
+        }
+        switch (SELECTION_SCHEME) {
+            case RANK:
+                return RANK_SELECTOR.select(random);
+            case SUS:
+                return SUS_SELECTED[SUS_CURSOR++ % SUS_SELECTED.length];
+            default:
+                return TOURNAMENT_SELECTOR.select(SELECTION_FITNESS, random);
+        }
+    }//selectParentIndex
 
     /**
      * This method finds the index of the best solution in the given population based on their
@@ -245,5 +297,238 @@ public class GeneticAlgorithm {
         }
         return bestIndex;
     }//findBestSolutionIndex
+
+    /**
+     * This method runs one generation on a char[][] population: it prepares selection, breeds
+     * every pair of children with crossover and mutation, and scores them. The children are
+     * written into the chromosomes of newPopulation, so the caller can swap the two populations
+     * after each generation instead of allocating new ones.
+     *
+     * @param population       The current population of candidate solutions.
+     * @param fitnessValues    The fitness values of the current population.
+     * @param newPopulation    The population receiving the children (output parameter).
+     * @param newFitnessValues The fitness values of the children (output parameter).
+     * @param crossoverRate    The probability of crossover during reproduction.
+     * @return The index of the best solution in the new population.
+     */
+    public static int runGeneration(char[][] population, double[] fitnessValues,
+                                    char[][] newPopulation, double[] newFitnessValues, double crossoverRate) {
+        prepareSelection(fitnessValues);
+        for (int i = 0; i < POP_SIZE; i += 2) {
+            char[] parent1 = population[selectParentIndex()];
+            char[] parent2 = population[selectParentIndex()];
+            char[] child1 = newPopulation[i];
+            char[] child2 = newPopulation[i + 1];
+
+            if (random.nextDouble() < crossoverRate) {
+                uniformcrossover(parent1, parent2, child1, child2);
+                onePointCrossover(parent1, parent2, child1, child2);
+            } else {
+                System.arraycopy(parent1, 0, child1, 0, CHROMOSOME_LENGTH);
+                System.arraycopy(parent2, 0, child2, 0, CHROMOSOME_LENGTH);
+            }
+
+            mutateChildren(child1, child2);
+
+            newFitnessValues[i] = Evaluation.fitness(new String(child1), ENCRYPTED_TEXT);
+            newFitnessValues[i + 1] = Evaluation.fitness(new String(child2), ENCRYPTED_TEXT);
+        }
+        return findBestSolutionIndex(newFitnessValues);
+    }//runGeneration
+
+    /**
+     * This method checks whether a candidate solution is the expected key, which is the stop
+     * condition when the key is known in advance.
+     *
+     * @param population The population of candidate solutions.
+     * @param individual The index of the candidate solution.
+     * @param key        The expected key.
+     * @return True if the candidate solution equals the key.
+     */
+    public static boolean isSolution(char[][] population, int individual, String key) {
+        return key.contentEquals(CharBuffer.wrap(population[individual]));
+    }//isSolution
+
+    /**
+     * This method initializes an off-heap population of candidate solutions randomly, writing
+     * the genes directly into the population's storage.
+     *
+     * @param population The off-heap population to fill.
+     */
+    public static void initializePopulation(OffHeapPopulation population) {
+        AliasTable characterTable = new AliasTable(calculateCharacterFrequencies(ENCRYPTED_TEXT));
+
+        for (int i = 0; i < population.size(); i++) {
+            for (int j = 0; j < population.getChromosomeLength(); j++) {
+                population.setGene(i, j, getRandomCharBasedOnFrequencies(characterTable));
+            }
+        }
+    }//initializePopulation
+
+    /**
+     * This method evaluates the fitness of each candidate solution in an off-heap population and
+     * stores the result in the population's fitness values.
+     *
+     * @param population The off-heap population to be evaluated.
+     */
+    public static void evaluatePopulation(OffHeapPopulation population) {
+        for (int i = 0; i < population.size(); i++) {
+            evaluateIndividual(population, i);
+        }
+    }//evaluatePopulation
+
+    /**
+     * This method evaluates the fitness of a single candidate solution in an off-heap population
+     * and stores the result in the population's fitness values.
+     *
+     * @param population The off-heap population containing the candidate solution.
+     * @param individual The index of the candidate solution.
+     */
+    public static void evaluateIndividual(OffHeapPopulation population, int individual) {
+        population.setFitness(individual, Evaluation.fitness(population.getKey(individual), ENCRYPTED_TEXT));
+    }//evaluateIndividual
+
+    /**
+     * This method performs one-point crossover between two parents of an off-heap population and
+     * writes the two children into another off-heap population.
+     *
+     * @param parents  The population holding the parent solutions.
+     * @param parent1  The index of the first parent solution.
+     * @param parent2  The index of the second parent solution.
+     * @param children The population receiving the child solutions.
+     * @param child1   The index of the first child solution (output parameter).
+     * @param child2   The index of the second child solution (output parameter).
+     */
+    public static void onePointCrossover(OffHeapPopulation parents, int parent1, int parent2,
+                                         OffHeapPopulation children, int child1, int child2) {
+        int crossoverPoint = random.nextInt(CHROMOSOME_LENGTH);
+
+        children.copyGenes(parents, parent1, child1, 0, crossoverPoint);
+        children.copyGenes(parents, parent2, child2, 0, crossoverPoint);
+        children.copyGenes(parents, parent2, child1, crossoverPoint, CHROMOSOME_LENGTH);
+        children.copyGenes(parents, parent1, child2, crossoverPoint, CHROMOSOME_LENGTH);
+    }//onePointCrossover
+
+    /**
+     * This method performs uniform crossover between two parents of an off-heap population and
+     * writes the two children into another off-heap population.
+     *
+     * @param parents  The population holding the parent solutions.
+     * @param parent1  The index of the first parent solution.
+     * @param parent2  The index of the second parent solution.
+     * @param children The population receiving the child solutions.
+     * @param child1   The index of the first child solution (output parameter).
+     * @param child2   The index of the second child solution (output parameter).
+     */
+    public static void uniformcrossover(OffHeapPopulation parents, int parent1, int parent2,
+                                        OffHeapPopulation children, int child1, int child2) {
+        for (int i = 0; i < CHROMOSOME_LENGTH; i++) {
+            if (random.nextBoolean()) {
+                children.setGene(child1, i, parents.getGene(parent1, i));
+                children.setGene(child2, i, parents.getGene(parent2, i));
+            } else {
+                children.setGene(child1, i, parents.getGene(parent2, i));
+                children.setGene(child2, i, parents.getGene(parent1, i));
+            }
+        }
+    }//uniformcrossover
+
+    /**
+     * This method performs scramble mutation on a chromosome of an off-heap population. The
+     * selected subset of genes is shuffled in place instead of through a temporary array.
+     *
+     * @param population The off-heap population containing the chromosome.
+     * @param individual The index of the chromosome to be mutated.
+     */
+    public static void scrambleMutation(OffHeapPopulation population, int individual) {
+        int startIndex = random.nextInt(CHROMOSOME_LENGTH);
+        int endIndex = startIndex + random.nextInt(CHROMOSOME_LENGTH - startIndex);
+        int subsetLength = endIndex - startIndex + 1;
+
+        for (int i = 0; i < subsetLength; i++) {
+            int swapIndex = random.nextInt(subsetLength);
+            population.swapGenes(individual, startIndex + i, startIndex + swapIndex);
+        }
+    }//scrambleMutation
+
+    /**
+     * This method performs mutation on two children of an off-heap population with a certain
+     * mutation rate.
+     *
+     * @param population The off-heap population containing the children.
+     * @param child1     The index of the first child solution.
+     * @param child2     The index of the second child solution.
+     */
+    public static void mutateChildren(OffHeapPopulation population, int child1, int child2) {
+        if (random.nextDouble() < MUTATION_RATE) {
+            scrambleMutation(population, child1);
+        }
+        if (random.nextDouble() < MUTATION_RATE) {
+            scrambleMutation(population, child2);
+        }
+    }//mutateChildren
+
+    /**
+     * This method finds the index of the best solution in an off-heap population based on the
+     * stored fitness values.
+     *
+     * @param population The off-heap population of candidate solutions.
+     * @return The index of the best solution in the population.
+     */
+    public static int findBestSolutionIndex(OffHeapPopulation population) {
+        int bestIndex = 0;
+        for (int i = 1; i < population.size(); i++) {
+            if (population.getFitness(i) < population.getFitness(bestIndex)) {
+                bestIndex = i;
+            }
+        }
+        return bestIndex;
+    }//findBestSolutionIndex
+
+    /**
+     * This method runs one generation on an off-heap population: it prepares selection, breeds
+     * every pair of children with crossover and mutation into newPopulation, and scores them.
+     * The caller swaps the two populations after each generation.
+     *
+     * @param population    The off-heap population of the current generation.
+     * @param newPopulation The off-heap population receiving the children (output parameter).
+     * @param crossoverRate The probability of crossover during reproduction.
+     * @return The index of the best solution in the new population.
+     */
+    public static int runGeneration(OffHeapPopulation population, OffHeapPopulation newPopulation,
+                                    double crossoverRate) {
+        prepareSelection(population);
+        for (int i = 0; i < POP_SIZE; i += 2) {
+            int parent1 = selectParentIndex();
+            int parent2 = selectParentIndex();
+
+            if (random.nextDouble() < crossoverRate) {
+                uniformcrossover(population, parent1, parent2, newPopulation, i, i + 1);
+                onePointCrossover(population, parent1, parent2, newPopulation, i, i + 1);
+            } else {
+                newPopulation.copyGenes(population, parent1, i, 0, CHROMOSOME_LENGTH);
+                newPopulation.copyGenes(population, parent2, i + 1, 0, CHROMOSOME_LENGTH);
+            }
+
+            mutateChildren(newPopulation, i, i + 1);
+
+            evaluateIndividual(newPopulation, i);
+            evaluateIndividual(newPopulation, i + 1);
+        }
+        return findBestSolutionIndex(newPopulation);
+    }//runGeneration
+
+    /**
+     * This method checks whether a candidate solution of an off-heap population is the expected
+     * key, which is the stop condition when the key is known in advance.
+     *
+     * @param population The off-heap population of candidate solutions.
+     * @param individual The index of the candidate solution.
+     * @param key        The expected key.
+     * @return True if the candidate solution equals the key.
+     */
+    public static boolean isSolution(OffHeapPopulation population, int individual, String key) {
+        return population.getKey(individual).equals(key);
+    }//isSolution
 }//GeneticAlgorithm
 
@@ -0,0 +1,176 @@
+package ga;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class represents a population of candidate solutions stored outside the Java heap.
+ * Each gene is kept as a single byte (the lowercase ASCII letter) in one contiguous direct
+ * buffer, and the fitness of each individual is kept in a parallel direct buffer of doubles.
+ * Compared to a char[][] population this halves the gene storage, removes the per-row object
+ * header and pointer, and keeps the bulk of the population out of reach of the garbage collector,
+ * which makes populations of several million individuals practical.
+ *
+ * Individuals are addressed by index; the genetic operators in GeneticAlgorithm read and write
+ * the genes in place, so no rows are copied onto the heap.
+ *
+ * The buffers are reserved against the JVM's direct memory limit, which defaults to the maximum
+ * heap size (-Xmx). For very large populations start the JVM with -XX:MaxDirectMemorySize set
+ * to at least the combined reservedBytes of every store in use, for example
+ * -XX:MaxDirectMemorySize=2g for two stores of 5 million 100-gene individuals. Direct buffers
+ * are only released when the store is garbage collected, so stores should be allocated once and
+ * reused across runs rather than allocated per run.
+ *
+ */
+public class OffHeapPopulation {
+
+    private final int size;
+    private final int chromosomeLength;
+    private final ByteBuffer genes;
+    private final DoubleBuffer fitness;
+
+    /**
+     * This constructor allocates an empty off-heap population.
+     *
+     * @param size             The number of individuals in the population.
+     * @param chromosomeLength The number of genes in each individual.
+     * @throws IllegalArgumentException If the sizes are not positive or the genes do not fit in a single buffer.
+     * @throws IllegalStateException If the direct memory limit does not allow the buffers to be reserved.
+     */
+    public OffHeapPopulation(int size, int chromosomeLength) {
+        if (size <= 0 || chromosomeLength <= 0) {
+            throw new IllegalArgumentException("Population size and chromosome length must be positive");
+        }
+        if ((long) size * chromosomeLength > Integer.MAX_VALUE
+                || (long) size * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Population of " + size + " x " + chromosomeLength + " genes is too large for an off-heap store");
+        }
+        this.size = size;
+        this.chromosomeLength = chromosomeLength;
+        try {
+            this.genes = ByteBuffer.allocateDirect(size * chromosomeLength);
+            this.fitness = ByteBuffer.allocateDirect(size * Double.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asDoubleBuffer();
+        } catch (OutOfMemoryError e) {
+            throw new IllegalStateException("Cannot reserve " + reservedBytes(size, chromosomeLength)
+                    + " bytes of direct memory for a population of " + size + " x " + chromosomeLength
+                    + " genes; raise the limit with -XX:MaxDirectMemorySize", e);
+        }
+    }//Constructor
+
+    /**
+     * This method returns the direct memory a store of the given dimensions reserves.
+     *
+     * @param size             The number of individuals in the population.
+     * @param chromosomeLength The number of genes in each individual.
+     * @return The number of bytes reserved for the genes and fitness values.
+     */
+    public static long reservedBytes(int size, int chromosomeLength) {
+        return (long) size * chromosomeLength + (long) size * Double.BYTES;
+    }//reservedBytes
+
+    public int size() {
+        return size;
+    }
+
+    public int getChromosomeLength() {
+        return chromosomeLength;
+    }
+
+    /**
+     * This method returns a single gene of an individual.
+     *
+     * @param individual The index of the individual.
+     * @param gene       The position of the gene within the chromosome.
+     * @return The gene as a lowercase letter.
+     */
+    public char getGene(int individual, int gene) {
+        return (char) genes.get(offset(individual) + gene);
+    }//getGene
+
+    /**
+     * This method sets a single gene of an individual.
+     *
+     * @param individual The index of the individual.
+     * @param gene       The position of the gene within the chromosome.
+     * @param value      The gene as a lowercase letter.
+     */
+    public void setGene(int individual, int gene, char value) {
+        genes.put(offset(individual) + gene, (byte) value);
+    }//setGene
+
+    /**
+     * This method swaps two genes of the same individual in place.
+     *
+     * @param individual The index of the individual.
+     * @param gene1      The position of the first gene.
+     * @param gene2      The position of the second gene.
+     */
+    public void swapGenes(int individual, int gene1, int gene2) {
+        int base = offset(individual);
+        byte temp = genes.get(base + gene1);
+        genes.put(base + gene1, genes.get(base + gene2));
+        genes.put(base + gene2, temp);
+    }//swapGenes
+
+    /**
+     * This method copies a range of genes from an individual of another (or the same) population.
+     *
+     * @param source           The population to copy from.
+     * @param sourceIndividual The index of the individual to copy from.
+     * @param targetIndividual The index of the individual in this population to copy into.
+     * @param from             The first gene position to copy (inclusive).
+     * @param to               The last gene position to copy (exclusive).
+     */
+    public void copyGenes(OffHeapPopulation source, int sourceIndividual, int targetIndividual, int from, int to) {
+        if (to > from) {
+            genes.put(offset(targetIndividual) + from, source.genes, source.offset(sourceIndividual) + from, to - from);
+        }
+    }//copyGenes
+
+    /**
+     * This method copies the chromosome of an individual into a caller supplied buffer, so that
+     * the buffer can be reused across individuals.
+     *
+     * @param individual The index of the individual.
+     * @param buffer     The destination, at least chromosomeLength bytes long.
+     */
+    public void readChromosome(int individual, byte[] buffer) {
+        genes.get(offset(individual), buffer, 0, chromosomeLength);
+    }//readChromosome
+
+    /**
+     * This method returns the chromosome of an individual as a key string.
+     *
+     * @param individual The index of the individual.
+     * @return The decryption key represented by the individual.
+     */
+    public String getKey(int individual) {
+        byte[] buffer = new byte[chromosomeLength];
+        readChromosome(individual, buffer);
+        return new String(buffer, StandardCharsets.US_ASCII);
+    }//getKey
+
+    public double getFitness(int individual) {
+        return fitness.get(individual);
+    }
+
+    public void setFitness(int individual, double value) {
+        fitness.put(individual, value);
+    }
+
+    /**
+     * @return A read-only view of the fitness values, indexed by individual.
+     */
+    public DoubleBuffer getFitnessValues() {
+        return fitness.asReadOnlyBuffer();
+    }//getFitnessValues
+
+    private int offset(int individual) {
+        return individual * chromosomeLength;
+    }//offset
+}//OffHeapPopulation
@@ -0,0 +1,110 @@
+package ga.sampling;
+
+import java.util.Random;
+
+/**
+ * This class samples indices from a fixed discrete distribution in constant time using
+ * Walker's alias method. The table is built once in linear time; each sample then costs one
+ * random index and one random double, regardless of the number of outcomes.
+ *
+ * citation:
+ * 1) M. D. Vose, "A linear algorithm for generating random numbers with a given distribution",
+ *    IEEE Transactions on Software Engineering, 1991
+ *
+ */
+public class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * This constructor builds the alias table for integer weights, such as character counts.
+     *
+     * @param weights The non-negative weight of each outcome.
+     * @throws IllegalArgumentException If a weight is negative or all weights are zero.
+     */
+    public AliasTable(int[] weights) {
+        this(toDoubles(weights));
+    }//Constructor
+
+    /**
+     * This constructor builds the alias table for real valued weights.
+     *
+     * @param weights The non-negative weight of each outcome.
+     * @throws IllegalArgumentException If a weight is negative or all weights are zero.
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weights must be non-negative");
+            }
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left over is 1 up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }//Constructor
+
+    /**
+     * This method draws an outcome from the distribution.
+     *
+     * @param random The random number generator to draw from.
+     * @return The index of the selected outcome.
+     */
+    public int sample(Random random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }//sample
+
+    public int size() {
+        return probability.length;
+    }
+
+    private static double[] toDoubles(int[] values) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }//toDoubles
+}//AliasTable
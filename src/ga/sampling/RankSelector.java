@@ -0,0 +1,125 @@
+package ga.sampling;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+/**
+ * This class performs linear rank selection. Once per generation the population is ranked
+ * by fitness and a cumulative table of rank weights is built; each selection is then a binary
+ * search over that table. The working arrays are reused between generations, so neither
+ * preparing nor selecting allocates once the population size is stable.
+ *
+ */
+public class RankSelector {
+
+    private final double selectionPressure;
+    private int[] order = new int[0];
+    private double[] cumulative = new double[0];
+    private int size;
+
+    /**
+     * @param selectionPressure The expected number of offspring of the best individual, between
+     *                          1 (uniform selection) and 2 (the worst individual is never picked).
+     */
+    public RankSelector(double selectionPressure) {
+        if (selectionPressure < 1 || selectionPressure > 2) {
+            throw new IllegalArgumentException("Selection pressure must be between 1 and 2");
+        }
+        this.selectionPressure = selectionPressure;
+    }//Constructor
+
+    /**
+     * This method ranks the population and builds the cumulative selection table. It must be
+     * called whenever the fitness values change, normally once per generation.
+     *
+     * @param fitnessValues The fitness values of the population, lower being better.
+     */
+    public void prepare(double[] fitnessValues) {
+        prepare(DoubleBuffer.wrap(fitnessValues));
+    }//prepare
+
+    /**
+     * This method ranks the population and builds the cumulative selection table from fitness
+     * values held in a buffer, such as those of an OffHeapPopulation.
+     *
+     * @param fitnessValues The fitness values of the population, one per index up to the limit.
+     */
+    public void prepare(DoubleBuffer fitnessValues) {
+        size = fitnessValues.limit();
+        if (order.length < size) {
+            order = new int[size];
+            cumulative = new double[size];
+        }
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sortWorstFirst(fitnessValues);
+
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            double weight = size == 1 ? 1
+                    : (2 - selectionPressure) + 2 * (selectionPressure - 1) * rank / (size - 1);
+            total += weight;
+            cumulative[rank] = total;
+        }
+    }//prepare
+
+    /**
+     * This method selects one individual with a probability proportional to its rank weight.
+     *
+     * @param random The random number generator to draw with.
+     * @return The index of the selected individual.
+     */
+    public int select(Random random) {
+        if (size == 0) {
+            throw new IllegalStateException("prepare must be called before select");
+        }
+        double target = random.nextDouble() * cumulative[size - 1];
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return order[low];
+    }//select
+
+    /**
+     * This method sorts the index table so the worst (highest) fitness comes first, using an
+     * in-place heap sort to avoid boxing the indices.
+     *
+     * @param fitnessValues The fitness values to sort by.
+     */
+    private void sortWorstFirst(DoubleBuffer fitnessValues) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(fitnessValues, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int temp = order[0];
+            order[0] = order[end];
+            order[end] = temp;
+            siftDown(fitnessValues, 0, end);
+        }
+    }//sortWorstFirst
+
+    private void siftDown(DoubleBuffer fitnessValues, int root, int end) {
+        while (2 * root + 1 < end) {
+            int child = 2 * root + 1;
+            if (child + 1 < end && fitnessValues.get(order[child + 1]) < fitnessValues.get(order[child])) {
+                child++;
+            }
+            if (fitnessValues.get(order[child]) < fitnessValues.get(order[root])) {
+                int temp = order[root];
+                order[root] = order[child];
+                order[child] = temp;
+                root = child;
+            } else {
+                return;
+            }
+        }
+    }//siftDown
+}//RankSelector
@@ -0,0 +1,47 @@
+package ga.sampling;
+
+/**
+ * This enum lists the parent selection schemes the genetic algorithm can use.
+ */
+public enum SelectionScheme {
+    /** Tournament selection, see TournamentSelector. */
+    TOURNAMENT,
+    /** Linear rank selection, see RankSelector. */
+    RANK,
+    /** Stochastic universal sampling, see StochasticUniversalSampler. */
+    SUS;
+
+    /**
+     * This method parses a scheme name, ignoring case.
+     *
+     * @param name The name of the scheme (tournament, rank or sus).
+     * @return The matching selection scheme.
+     * @throws IllegalArgumentException If the name does not match a scheme.
+     */
+    public static SelectionScheme parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Selection scheme must be tournament, rank or sus: " + name);
+        }
+    }//parse
+
+    /**
+     * This method returns the tournament size to record for a run with this scheme. Only
+     * tournament selection uses the tournament size, so the other schemes record 0 and runs of
+     * the same configuration are grouped together whatever tournament size was configured.
+     *
+     * @param tournamentSize The configured tournament size.
+     * @return The tournament size for tournament selection, 0 otherwise.
+     */
+    public int recordedTournamentSize(int tournamentSize) {
+        return this == TOURNAMENT ? tournamentSize : 0;
+    }//recordedTournamentSize
+
+    /**
+     * @return The lowercase name used on the command line and in CSV files.
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }//getName
+}//SelectionScheme
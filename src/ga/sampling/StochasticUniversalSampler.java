@@ -0,0 +1,88 @@
+package ga.sampling;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+/**
+ * This class performs stochastic universal sampling. Once per generation a cumulative table
+ * of selection weights is built; all parents of the next generation are then chosen with a
+ * single random offset and evenly spaced pointers, which gives every individual a number of
+ * copies within one of its expected value. Since lower fitness is better, the weight of an
+ * individual is its distance from the worst fitness in the population.
+ *
+ */
+public class StochasticUniversalSampler {
+
+    private double[] cumulative = new double[0];
+    private int size;
+
+    /**
+     * This method builds the cumulative selection table. It must be called whenever the fitness
+     * values change, normally once per generation.
+     *
+     * @param fitnessValues The fitness values of the population, lower being better.
+     */
+    public void prepare(double[] fitnessValues) {
+        prepare(DoubleBuffer.wrap(fitnessValues));
+    }//prepare
+
+    /**
+     * This method builds the cumulative selection table from fitness values held in a buffer,
+     * such as those of an OffHeapPopulation.
+     *
+     * @param fitnessValues The fitness values of the population, one per index up to the limit.
+     */
+    public void prepare(DoubleBuffer fitnessValues) {
+        size = fitnessValues.limit();
+        if (cumulative.length < size) {
+            cumulative = new double[size];
+        }
+
+        double best = Double.MAX_VALUE;
+        double worst = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            best = Math.min(best, fitnessValues.get(i));
+            worst = Math.max(worst, fitnessValues.get(i));
+        }
+        // Keep the worst individual selectable and fall back to uniform weights when all are equal
+        double offset = worst > best ? (worst - best) / size : 1;
+
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += worst - fitnessValues.get(i) + offset;
+            cumulative[i] = total;
+        }
+    }//prepare
+
+    /**
+     * This method selects a number of individuals in one sweep and shuffles them, so that
+     * consecutive entries can be paired up as parents.
+     *
+     * @param count    The number of individuals to select.
+     * @param random   The random number generator to draw with.
+     * @param selected The array receiving the selected indices, at least count long.
+     */
+    public void select(int count, Random random, int[] selected) {
+        if (size == 0) {
+            throw new IllegalStateException("prepare must be called before select");
+        }
+        double step = cumulative[size - 1] / count;
+        double pointer = random.nextDouble() * step;
+        int index = 0;
+
+        for (int i = 0; i < count; i++) {
+            while (index < size - 1 && cumulative[index] <= pointer) {
+                index++;
+            }
+            selected[i] = index;
+            pointer += step;
+        }
+
+        for (int i = count - 1; i > 0; i--) {
+            int swapIndex = random.nextInt(i + 1);
+            int temp = selected[i];
+            selected[i] = selected[swapIndex];
+            selected[swapIndex] = temp;
+        }
+    }//select
+}//StochasticUniversalSampler
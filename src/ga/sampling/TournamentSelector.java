@@ -0,0 +1,50 @@
+package ga.sampling;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+/**
+ * This class performs tournament selection without allocating. Instead of collecting the
+ * tournament into an array and copying the winner, it keeps only the best index seen so far
+ * and returns it, leaving the caller to decide whether the chromosome needs to be copied.
+ * Fitness values are read through a DoubleBuffer, so the same code serves a double[] (via
+ * DoubleBuffer.wrap) and the fitness values of an OffHeapPopulation.
+ *
+ */
+public class TournamentSelector {
+
+    private final int tournamentSize;
+
+    /**
+     * @param tournamentSize The number of candidates drawn for each tournament.
+     */
+    public TournamentSelector(int tournamentSize) {
+        if (tournamentSize <= 0) {
+            throw new IllegalArgumentException("Tournament size must be positive");
+        }
+        this.tournamentSize = tournamentSize;
+    }//Constructor
+
+    /**
+     * This method runs one tournament over the population. Lower fitness values are better.
+     *
+     * @param fitnessValues The fitness values of the population, one per index up to the limit.
+     * @param random        The random number generator to draw candidates with.
+     * @return The index of the winning candidate.
+     */
+    public int select(DoubleBuffer fitnessValues, Random random) {
+        int size = fitnessValues.limit();
+        int bestIndex = random.nextInt(size);
+        for (int i = 1; i < tournamentSize; i++) {
+            int candidate = random.nextInt(size);
+            if (fitnessValues.get(candidate) < fitnessValues.get(bestIndex)) {
+                bestIndex = candidate;
+            }
+        }
+        return bestIndex;
+    }//select
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+}//TournamentSelector
@@ -0,0 +1,242 @@
+package stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class keeps the online aggregates of all runs of one parameter configuration. Per
+ * generation it keeps the mean, variance and quantile estimates of the best and average
+ * fitness; per run it keeps the best fitness reached and the number of generations and the
+ * elapsed milliseconds needed to reach the target fitness. Memory grows with the number of generations only, never with the
+ * number of runs.
+ *
+ */
+public class ConfigurationStatistics {
+
+    /** Fitness scores are sums of absolute frequency differences, so they lie between 0 and 2. */
+    private static final double MAX_FITNESS = 2.0;
+    private static final int HISTOGRAM_BINS = 2000;
+
+    /**
+     * This class holds the aggregates of a single generation across runs.
+     */
+    public static class GenerationStatistics {
+        private final OnlineStatistics bestFitness = new OnlineStatistics();
+        private final OnlineStatistics averageFitness = new OnlineStatistics();
+        private final P2Quantile bestLowerQuartile = new P2Quantile(0.25);
+        private final P2Quantile bestMedian = new P2Quantile(0.5);
+        private final P2Quantile bestUpperQuartile = new P2Quantile(0.75);
+        private final P2Quantile averageMedian = new P2Quantile(0.5);
+
+        void add(double best, double average) {
+            bestFitness.add(best);
+            averageFitness.add(average);
+            bestLowerQuartile.add(best);
+            bestMedian.add(best);
+            bestUpperQuartile.add(best);
+            averageMedian.add(average);
+        }
+
+        public OnlineStatistics getBestFitness() {
+            return bestFitness;
+        }
+
+        public OnlineStatistics getAverageFitness() {
+            return averageFitness;
+        }
+
+        public double getBestLowerQuartile() {
+            return bestLowerQuartile.getQuantile();
+        }
+
+        public double getBestMedian() {
+            return bestMedian.getQuantile();
+        }
+
+        public double getBestUpperQuartile() {
+            return bestUpperQuartile.getQuantile();
+        }
+
+        public double getAverageMedian() {
+            return averageMedian.getQuantile();
+        }
+    }//GenerationStatistics
+
+    private final double crossOverRate;
+    private final double mutationRate;
+    private final double population;
+    private final int tournamentSize;
+    private final String engine;
+    private final String selection;
+    private final double targetFitness;
+
+    private final List<GenerationStatistics> generations = new ArrayList<>();
+    private final OnlineStatistics bestOfRun = new OnlineStatistics();
+    private final P2Quantile bestOfRunMedian = new P2Quantile(0.5);
+    private final FitnessHistogram bestOfRunHistogram = new FitnessHistogram(0, MAX_FITNESS, HISTOGRAM_BINS);
+    private final OnlineStatistics generationsToTarget = new OnlineStatistics();
+    private final OnlineStatistics timeToTarget = new OnlineStatistics();
+    private final P2Quantile timeToTargetMedian = new P2Quantile(0.5);
+
+    private boolean runInProgress;
+    private double runBestFitness;
+    private int runGenerationsToTarget;
+    private double runTimeToTarget;
+
+    /**
+     * @param crossOverRate  The crossover rate of the configuration.
+     * @param mutationRate   The mutation rate of the configuration.
+     * @param population     The population size of the configuration.
+     * @param tournamentSize The tournament size of the configuration, or 0 if it was not recorded or
+     *                       the selection scheme does not use it.
+     * @param engine         The population store (heap or offheap) of the configuration.
+     * @param selection      The selection scheme (tournament, rank or sus) of the configuration.
+     * @param targetFitness  The fitness a run has to reach (or go below) to count as solved.
+     */
+    public ConfigurationStatistics(double crossOverRate, double mutationRate, double population,
+                                   int tournamentSize, String engine, String selection, double targetFitness) {
+        this.crossOverRate = crossOverRate;
+        this.mutationRate = mutationRate;
+        this.population = population;
+        this.tournamentSize = tournamentSize;
+        this.engine = engine;
+        this.selection = selection;
+        this.targetFitness = targetFitness;
+    }//Constructor
+
+    /**
+     * This method starts a new run, finishing the previous one if it is still open.
+     */
+    public void startRun() {
+        endRun();
+        runInProgress = true;
+        runBestFitness = Double.MAX_VALUE;
+        runGenerationsToTarget = -1;
+        runTimeToTarget = Double.NaN;
+    }//startRun
+
+    /**
+     * This method adds the results of one generation of the current run.
+     *
+     * @param generationNumber The generation number, starting at 1.
+     * @param bestFitness      The best fitness of the generation.
+     * @param averageFitness   The average fitness of the generation.
+     * @param elapsedMs        The milliseconds elapsed since the start of the run, or NaN if not recorded.
+     */
+    public void addGeneration(int generationNumber, double bestFitness, double averageFitness, double elapsedMs) {
+        if (!runInProgress) {
+            startRun();
+        }
+        while (generations.size() < generationNumber) {
+            generations.add(new GenerationStatistics());
+        }
+        generations.get(generationNumber - 1).add(bestFitness, averageFitness);
+
+        if (bestFitness < runBestFitness) {
+            runBestFitness = bestFitness;
+        }
+        if (runGenerationsToTarget < 0 && bestFitness <= targetFitness) {
+            runGenerationsToTarget = generationNumber;
+            runTimeToTarget = elapsedMs;
+        }
+    }//addGeneration
+
+    /**
+     * This method finishes the current run and folds its results into the run aggregates.
+     */
+    public void endRun() {
+        if (!runInProgress) {
+            return;
+        }
+        runInProgress = false;
+        if (runBestFitness == Double.MAX_VALUE) {
+            return;
+        }
+        bestOfRun.add(runBestFitness);
+        bestOfRunMedian.add(runBestFitness);
+        bestOfRunHistogram.add(runBestFitness);
+        if (runGenerationsToTarget > 0) {
+            generationsToTarget.add(runGenerationsToTarget);
+            if (!Double.isNaN(runTimeToTarget)) {
+                timeToTarget.add(runTimeToTarget);
+                timeToTargetMedian.add(runTimeToTarget);
+            }
+        }
+    }//endRun
+
+    public double getCrossOverRate() {
+        return crossOverRate;
+    }
+
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    public double getPopulation() {
+        return population;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public String getSelection() {
+        return selection;
+    }
+
+    public double getTargetFitness() {
+        return targetFitness;
+    }
+
+    public long getRuns() {
+        return bestOfRun.getCount();
+    }
+
+    public List<GenerationStatistics> getGenerations() {
+        return generations;
+    }
+
+    public OnlineStatistics getBestOfRun() {
+        return bestOfRun;
+    }
+
+    public double getBestOfRunMedian() {
+        return bestOfRunMedian.getQuantile();
+    }
+
+    public FitnessHistogram getBestOfRunHistogram() {
+        return bestOfRunHistogram;
+    }
+
+    /**
+     * @return The aggregates of the generations needed to reach the target, over the runs that reached it.
+     */
+    public OnlineStatistics getGenerationsToTarget() {
+        return generationsToTarget;
+    }
+
+    /**
+     * @return The aggregates of the milliseconds needed to reach the target, over the runs that
+     *         reached it and recorded their elapsed time.
+     */
+    public OnlineStatistics getTimeToTarget() {
+        return timeToTarget;
+    }
+
+    public double getTimeToTargetMedian() {
+        return timeToTargetMedian.getQuantile();
+    }
+
+    /**
+     * @return A readable label identifying the configuration.
+     */
+    public String getLabel() {
+        return "crossover=" + crossOverRate + " mutation=" + mutationRate + " population=" + population
+                + (selection.equals("tournament") ? " tournament=" + tournamentSize : "")
+                + " engine=" + engine + " selection=" + selection;
+    }//getLabel
+}//ConfigurationStatistics
@@ -0,0 +1,269 @@
+package stats;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the statistics stage for comparing runs of the genetic algorithm. Generation
+ * results are streamed in one at a time, either directly or by reading the CSV file written by
+ * CSVWriter, and are folded into the online aggregates of their configuration (crossover rate,
+ * mutation rate, population size, tournament size, population store and selection scheme).
+ * Rows written before the tournament size and store were recorded are grouped under tournament
+ * size 0 and store "unrecorded" rather than merged with newer runs; rows written before the
+ * selection scheme was recorded used tournament selection. Only tournament selection uses the
+ * tournament size, so it is ignored (recorded as 0) for the other schemes. A new run starts whenever the generation
+ * number does not increase or the configuration changes. Rows written before the elapsed time
+ * was recorded count towards the generations to target but not the time to target. The stage then writes per-configuration and
+ * per-generation summaries and pairwise Mann-Whitney comparisons of the best fitness per run.
+ *
+ */
+public class CrossRunStatistics {
+
+    private static final double SIGNIFICANCE_LEVEL = 0.05;
+    private static final String UNRECORDED = "unrecorded";
+    private static final String DEFAULT_SELECTION = "tournament";
+
+    private final double targetFitness;
+    private final Map<String, ConfigurationStatistics> configurations = new LinkedHashMap<>();
+    private ConfigurationStatistics current;
+    private int lastGeneration;
+
+    /**
+     * @param targetFitness The fitness a run has to reach (or go below) to count as solved.
+     */
+    public CrossRunStatistics(double targetFitness) {
+        this.targetFitness = targetFitness;
+    }//Constructor
+
+    /**
+     * This method adds the results of one generation.
+     *
+     * @param crossOverRate    The crossover rate of the run.
+     * @param mutationRate     The mutation rate of the run.
+     * @param population       The population size of the run.
+     * @param tournamentSize   The tournament size of the run, ignored unless the selection scheme is tournament.
+     * @param engine           The population store (heap or offheap) of the run.
+     * @param selection        The selection scheme (tournament, rank or sus) of the run.
+     * @param generationNumber The generation number, starting at 1.
+     * @param bestFitness      The best fitness of the generation.
+     * @param averageFitness   The average fitness of the generation.
+     * @param elapsedMs        The milliseconds elapsed since the start of the run, or NaN if not recorded.
+     */
+    public void addGeneration(double crossOverRate, double mutationRate, double population,
+                              int tournamentSize, String engine, String selection,
+                              int generationNumber, double bestFitness, double averageFitness, double elapsedMs) {
+        int recordedTournamentSize = selection.equals(DEFAULT_SELECTION) ? tournamentSize : 0;
+        String key = crossOverRate + "," + mutationRate + "," + population + ","
+                + recordedTournamentSize + "," + engine + "," + selection;
+        ConfigurationStatistics configuration = configurations.computeIfAbsent(key,
+                k -> new ConfigurationStatistics(
+                        crossOverRate, mutationRate, population, recordedTournamentSize, engine, selection, targetFitness));
+
+        if (configuration != current || generationNumber <= lastGeneration) {
+            if (current != null) {
+                current.endRun();
+            }
+            configuration.startRun();
+            current = configuration;
+        }
+        configuration.addGeneration(generationNumber, bestFitness, averageFitness, elapsedMs);
+        lastGeneration = generationNumber;
+    }//addGeneration
+
+    /**
+     * This method finishes the run currently being streamed in.
+     */
+    public void endRun() {
+        if (current != null) {
+            current.endRun();
+            current = null;
+        }
+        lastGeneration = 0;
+    }//endRun
+
+    /**
+     * This method streams every row of a CSV file written by CSVWriter into the statistics,
+     * one line at a time.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs or a row cannot be parsed.
+     */
+    public void addCsv(String filePath) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("Generation")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    boolean recorded = fields.length >= 8;
+                    addGeneration(
+                            Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), Double.parseDouble(fields[5]),
+                            recorded ? Integer.parseInt(fields[6].trim()) : 0,
+                            recorded ? fields[7].trim() : UNRECORDED,
+                            fields.length >= 9 ? fields[8].trim() : DEFAULT_SELECTION,
+                            Integer.parseInt(fields[0].trim()), Double.parseDouble(fields[1]), Double.parseDouble(fields[2]),
+                            fields.length >= 10 && !fields[9].isBlank() ? Double.parseDouble(fields[9]) : Double.NaN
+                    );
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    throw new IOException("Invalid row " + lineNumber + " in the file: " + filePath);
+                }
+            }
+        }
+        endRun();
+    }//addCsv
+
+    public List<ConfigurationStatistics> getConfigurations() {
+        return new ArrayList<>(configurations.values());
+    }
+
+    /**
+     * This method writes one row per configuration with the aggregates of its runs.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    public void writeConfigurationSummary(String filePath) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+            writer.append("Cross-over Rate,Mutation Rate,Population,Tournament Size,Engine,Selection,Runs,Best Fitness Mean,Best Fitness Std Dev,"
+                    + "Best Fitness Median,Best Fitness Min,Target Fitness,Runs Reaching Target,"
+                    + "Generations To Target Mean,Generations To Target Std Dev,"
+                    + "Runs Timed To Target,Time To Target Ms Mean,Time To Target Ms Std Dev,Time To Target Ms Median\n");
+
+            for (ConfigurationStatistics configuration : configurations.values()) {
+                OnlineStatistics bestOfRun = configuration.getBestOfRun();
+                OnlineStatistics generationsToTarget = configuration.getGenerationsToTarget();
+                OnlineStatistics timeToTarget = configuration.getTimeToTarget();
+                writer.append(String.valueOf(configuration.getCrossOverRate())).append(",");
+                writer.append(String.valueOf(configuration.getMutationRate())).append(",");
+                writer.append(String.valueOf(configuration.getPopulation())).append(",");
+                writer.append(tournamentSizeCell(configuration)).append(",");
+                writer.append(configuration.getEngine()).append(",");
+                writer.append(configuration.getSelection()).append(",");
+                writer.append(String.valueOf(configuration.getRuns())).append(",");
+                writer.append(String.valueOf(bestOfRun.getMean())).append(",");
+                writer.append(String.valueOf(bestOfRun.getStandardDeviation())).append(",");
+                writer.append(String.valueOf(configuration.getBestOfRunMedian())).append(",");
+                writer.append(String.valueOf(bestOfRun.getMin())).append(",");
+                writer.append(String.valueOf(configuration.getTargetFitness())).append(",");
+                writer.append(String.valueOf(generationsToTarget.getCount())).append(",");
+                writer.append(String.valueOf(generationsToTarget.getMean())).append(",");
+                writer.append(String.valueOf(generationsToTarget.getStandardDeviation())).append(",");
+                writer.append(String.valueOf(timeToTarget.getCount())).append(",");
+                writer.append(String.valueOf(timeToTarget.getMean())).append(",");
+                writer.append(String.valueOf(timeToTarget.getStandardDeviation())).append(",");
+                writer.append(String.valueOf(configuration.getTimeToTargetMedian())).append("\n");
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing configuration statistics to CSV: " + e.getMessage());
+            throw e;
+        }
+    }//writeConfigurationSummary
+
+    /**
+     * This method writes one row per configuration and generation with the aggregates of the
+     * best and average fitness of that generation across runs.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    public void writeGenerationSummary(String filePath) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+            writer.append("Cross-over Rate,Mutation Rate,Population,Tournament Size,Engine,Selection,Generation,Runs,Best Fitness Mean,"
+                    + "Best Fitness Std Dev,Best Fitness Q1,Best Fitness Median,Best Fitness Q3,"
+                    + "Average Fitness Mean,Average Fitness Std Dev,Average Fitness Median\n");
+
+            for (ConfigurationStatistics configuration : configurations.values()) {
+                List<ConfigurationStatistics.GenerationStatistics> generations = configuration.getGenerations();
+                for (int i = 0; i < generations.size(); i++) {
+                    ConfigurationStatistics.GenerationStatistics generation = generations.get(i);
+                    writer.append(String.valueOf(configuration.getCrossOverRate())).append(",");
+                    writer.append(String.valueOf(configuration.getMutationRate())).append(",");
+                    writer.append(String.valueOf(configuration.getPopulation())).append(",");
+                    writer.append(tournamentSizeCell(configuration)).append(",");
+                    writer.append(configuration.getEngine()).append(",");
+                    writer.append(configuration.getSelection()).append(",");
+                    writer.append(String.valueOf(i + 1)).append(",");
+                    writer.append(String.valueOf(generation.getBestFitness().getCount())).append(",");
+                    writer.append(String.valueOf(generation.getBestFitness().getMean())).append(",");
+                    writer.append(String.valueOf(generation.getBestFitness().getStandardDeviation())).append(",");
+                    writer.append(String.valueOf(generation.getBestLowerQuartile())).append(",");
+                    writer.append(String.valueOf(generation.getBestMedian())).append(",");
+                    writer.append(String.valueOf(generation.getBestUpperQuartile())).append(",");
+                    writer.append(String.valueOf(generation.getAverageFitness().getMean())).append(",");
+                    writer.append(String.valueOf(generation.getAverageFitness().getStandardDeviation())).append(",");
+                    writer.append(String.valueOf(generation.getAverageMedian())).append("\n");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing generation statistics to CSV: " + e.getMessage());
+            throw e;
+        }
+    }//writeGenerationSummary
+
+    /**
+     * @return The tournament size of a tournament selection configuration, or an empty cell for
+     *         the schemes that do not use it.
+     */
+    private static String tournamentSizeCell(ConfigurationStatistics configuration) {
+        return configuration.getSelection().equals(DEFAULT_SELECTION)
+                ? String.valueOf(configuration.getTournamentSize()) : "";
+    }//tournamentSizeCell
+
+    /**
+     * This method writes a Mann-Whitney U test of the best fitness per run for every pair of
+     * configurations.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    public void writeComparisons(String filePath) throws IOException {
+        List<ConfigurationStatistics> list = getConfigurations();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+            writer.append("Configuration A,Configuration B,Runs A,Runs B,U,Z,P-Value,"
+                    + "Rank-Biserial Correlation,Common Language Effect Size,Exact,Significant,Better\n");
+
+            for (int i = 0; i < list.size(); i++) {
+                for (int j = i + 1; j < list.size(); j++) {
+                    ConfigurationStatistics a = list.get(i);
+                    ConfigurationStatistics b = list.get(j);
+                    MannWhitneyTest.Result result = MannWhitneyTest.test(
+                            a.getBestOfRunHistogram(), b.getBestOfRunHistogram());
+                    if (result == null) {
+                        continue;
+                    }
+                    boolean significant = result.getPValue() < SIGNIFICANCE_LEVEL;
+                    String better = !significant ? "" : result.getRankBiserial() < 0 ? "A" : "B";
+
+                    writer.append(a.getLabel()).append(",");
+                    writer.append(b.getLabel()).append(",");
+                    writer.append(String.valueOf(result.getN1())).append(",");
+                    writer.append(String.valueOf(result.getN2())).append(",");
+                    writer.append(String.valueOf(result.getU())).append(",");
+                    writer.append(String.valueOf(result.getZ())).append(",");
+                    writer.append(String.valueOf(result.getPValue())).append(",");
+                    writer.append(String.valueOf(result.getRankBiserial())).append(",");
+                    writer.append(String.valueOf(result.getCommonLanguageEffectSize())).append(",");
+                    writer.append(String.valueOf(result.isExact())).append(",");
+                    writer.append(String.valueOf(significant)).append(",");
+                    writer.append(better).append("\n");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing comparisons to CSV: " + e.getMessage());
+            throw e;
+        }
+    }//writeComparisons
+}//CrossRunStatistics
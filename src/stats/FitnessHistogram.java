@@ -0,0 +1,77 @@
+package stats;
+
+/**
+ * This class counts values in a fixed number of equal-width bins over a fixed range. It is
+ * used to keep the distribution of per-run results for a configuration in constant memory,
+ * so rank based tests can be computed without storing every run. Values outside the range
+ * are counted in the first or last bin.
+ *
+ */
+public class FitnessHistogram {
+
+    private final double lower;
+    private final double upper;
+    private final long[] counts;
+    private long total;
+
+    /**
+     * @param lower The lower bound of the range.
+     * @param upper The upper bound of the range.
+     * @param bins  The number of bins the range is divided into.
+     */
+    public FitnessHistogram(double lower, double upper, int bins) {
+        if (!(upper > lower) || bins <= 0) {
+            throw new IllegalArgumentException("Invalid histogram range or bin count");
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.counts = new long[bins];
+    }//Constructor
+
+    /**
+     * This method adds a value to the histogram.
+     *
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        counts[binOf(value)]++;
+        total++;
+    }//add
+
+    /**
+     * This method returns the bin a value falls into.
+     *
+     * @param value The value to locate.
+     * @return The index of the bin, clamped to the first and last bin.
+     */
+    public int binOf(double value) {
+        int bin = (int) ((value - lower) / (upper - lower) * counts.length);
+        if (bin < 0 || Double.isNaN(value)) {
+            return 0;
+        }
+        return Math.min(bin, counts.length - 1);
+    }//binOf
+
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * This method checks whether two histograms share the same range and bins, which is needed
+     * to compare them bin by bin.
+     *
+     * @param other The histogram to compare with.
+     * @return True if both histograms use the same bins.
+     */
+    public boolean isCompatibleWith(FitnessHistogram other) {
+        return lower == other.lower && upper == other.upper && counts.length == other.counts.length;
+    }//isCompatibleWith
+}//FitnessHistogram
@@ -0,0 +1,208 @@
+package stats;
+
+/**
+ * This class performs the two-sided Mann-Whitney U test between two samples summarised as
+ * histograms. Values that share a bin are treated as ties and given their average rank, so
+ * the test is exact up to the bin width. For small samples the p-value comes from the exact
+ * permutation distribution of the rank sum given the observed ties; beyond that it uses the
+ * normal approximation with tie and continuity correction.
+ *
+ */
+public class MannWhitneyTest {
+
+    /** The exact distribution is used while n1 * n2 and n1 + n2 stay within these limits. */
+    private static final long EXACT_MAX_PRODUCT = 400;
+    private static final long EXACT_MAX_TOTAL = 50;
+
+    /**
+     * This class holds the outcome of a Mann-Whitney U test.
+     */
+    public static class Result {
+        private final long n1;
+        private final long n2;
+        private final double u;
+        private final double z;
+        private final double pValue;
+        private final double rankBiserial;
+        private final boolean exact;
+
+        Result(long n1, long n2, double u, double z, double pValue, double rankBiserial, boolean exact) {
+            this.n1 = n1;
+            this.n2 = n2;
+            this.u = u;
+            this.z = z;
+            this.pValue = pValue;
+            this.rankBiserial = rankBiserial;
+            this.exact = exact;
+        }
+
+        public long getN1() {
+            return n1;
+        }
+
+        public long getN2() {
+            return n2;
+        }
+
+        /**
+         * @return The U statistic of the first sample.
+         */
+        public double getU() {
+            return u;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        /**
+         * @return True if the p-value comes from the exact distribution rather than the normal approximation.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * @return The rank-biserial correlation, between -1 and 1. Negative values mean the first
+         *         sample tends to be smaller (fitter) than the second.
+         */
+        public double getRankBiserial() {
+            return rankBiserial;
+        }
+
+        /**
+         * @return The probability that a value from the first sample is larger than one from the
+         *         second, counting ties as one half.
+         */
+        public double getCommonLanguageEffectSize() {
+            return u / ((double) n1 * n2);
+        }
+    }//Result
+
+    /**
+     * This method compares two samples with the Mann-Whitney U test.
+     *
+     * @param first  The histogram of the first sample.
+     * @param second The histogram of the second sample.
+     * @return The test result, or null if either sample is empty.
+     * @throws IllegalArgumentException If the histograms do not share the same bins.
+     */
+    public static Result test(FitnessHistogram first, FitnessHistogram second) {
+        if (!first.isCompatibleWith(second)) {
+            throw new IllegalArgumentException("Histograms must use the same bins");
+        }
+        long n1 = first.getTotal();
+        long n2 = second.getTotal();
+        if (n1 == 0 || n2 == 0) {
+            return null;
+        }
+        double n = n1 + n2;
+
+        double rankSum = 0;
+        double tieCorrection = 0;
+        long below = 0;
+        for (int bin = 0; bin < first.getBinCount(); bin++) {
+            long a = first.getCount(bin);
+            long tied = a + second.getCount(bin);
+            if (tied == 0) {
+                continue;
+            }
+            double averageRank = below + (tied + 1) / 2.0;
+            rankSum += a * averageRank;
+            tieCorrection += (double) tied * tied * tied - tied;
+            below += tied;
+        }
+
+        double u = rankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieCorrection / (n * (n - 1)));
+
+        double z = 0;
+        double pValue = 1;
+        if (variance > 0) {
+            double difference = u - mean;
+            double corrected = Math.max(0, Math.abs(difference) - 0.5);
+            z = Math.signum(difference) * corrected / Math.sqrt(variance);
+            pValue = Math.min(1, erfc(Math.abs(z) / Math.sqrt(2)));
+        }
+        boolean exact = n1 * n2 <= EXACT_MAX_PRODUCT && n1 + n2 <= EXACT_MAX_TOTAL;
+        if (exact) {
+            pValue = exactPValue(first, second, (int) n1, (int) n2, rankSum);
+        }
+        double rankBiserial = 2 * u / (n1 * (double) n2) - 1;
+
+        return new Result(n1, n2, u, z, pValue, rankBiserial, exact);
+    }//test
+
+    /**
+     * This method computes the two-sided p-value from the exact distribution of the first
+     * sample's rank sum over all ways of choosing n1 of the pooled values, keeping the midranks
+     * of tied values. Ranks are doubled so that midranks stay integers.
+     *
+     * @param first   The histogram of the first sample.
+     * @param second  The histogram of the second sample.
+     * @param n1      The size of the first sample.
+     * @param n2      The size of the second sample.
+     * @param rankSum The observed rank sum of the first sample.
+     * @return The probability of a rank sum at least as far from its mean as the observed one.
+     */
+    private static double exactPValue(FitnessHistogram first, FitnessHistogram second, int n1, int n2, double rankSum) {
+        int n = n1 + n2;
+        int maxSum = n * (n + 1);
+        // ways[k][s]: number of subsets of k pooled values whose doubled ranks add up to s
+        double[][] ways = new double[n1 + 1][maxSum + 1];
+        ways[0][0] = 1;
+
+        long below = 0;
+        for (int bin = 0; bin < first.getBinCount(); bin++) {
+            long tied = first.getCount(bin) + second.getCount(bin);
+            if (tied == 0) {
+                continue;
+            }
+            int doubledRank = (int) (2 * below + tied + 1);
+            for (long i = 0; i < tied; i++) {
+                for (int k = n1; k >= 1; k--) {
+                    for (int sum = maxSum; sum >= doubledRank; sum--) {
+                        ways[k][sum] += ways[k - 1][sum - doubledRank];
+                    }
+                }
+            }
+            below += tied;
+        }
+
+        double doubledMean = n1 * (n + 1.0);
+        double observedDistance = Math.abs(2 * rankSum - doubledMean);
+        double total = 0;
+        double extreme = 0;
+        for (int sum = 0; sum <= maxSum; sum++) {
+            total += ways[n1][sum];
+            if (Math.abs(sum - doubledMean) >= observedDistance - 1e-9) {
+                extreme += ways[n1][sum];
+            }
+        }
+        return Math.min(1, extreme / total);
+    }//exactPValue
+
+    /**
+     * This method approximates the complementary error function with a fractional error below
+     * 1.2e-7.
+     *
+     * citation:
+     * 1) W. H. Press et al., Numerical Recipes, section 6.2 (erfcc)
+     *
+     * @param x The argument.
+     * @return The complementary error function of x.
+     */
+    private static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1 / (1 + 0.5 * z);
+        double result = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? result : 2 - result;
+    }//erfc
+}//MannWhitneyTest
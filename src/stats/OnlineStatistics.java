@@ -0,0 +1,63 @@
+package stats;
+
+/**
+ * This class keeps running aggregates (count, mean, variance, minimum and maximum) of a stream
+ * of values in constant memory, using Welford's online algorithm for the mean and variance.
+ *
+ */
+public class OnlineStatistics {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * This method adds a value to the aggregates.
+     *
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }//add
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * This method returns the sample variance of the values added so far.
+     *
+     * @return The sample variance, or NaN if fewer than two values were added.
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : Double.NaN;
+    }//getVariance
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+}//OnlineStatistics
@@ -0,0 +1,130 @@
+package stats;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates a single quantile of a stream of values in constant memory using the
+ * P-square algorithm. Five markers are kept and their heights are adjusted with a piecewise
+ * parabolic prediction as values arrive, so no values are stored.
+ *
+ * citation:
+ * 1) R. Jain and I. Chlamtac, "The P2 algorithm for dynamic calculation of quantiles and
+ *    histograms without storing observations", Communications of the ACM, 1985
+ *
+ */
+public class P2Quantile {
+
+    private final double p;
+    private final double[] heights = new double[5];
+    private final double[] positions = new double[5];
+    private final double[] desiredPositions = new double[5];
+    private final double[] increments = new double[5];
+    private int count;
+
+    /**
+     * @param p The quantile to estimate, between 0 and 1 (for example 0.5 for the median).
+     */
+    public P2Quantile(double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + p);
+        }
+        this.p = p;
+        increments[0] = 0;
+        increments[1] = p / 2;
+        increments[2] = p;
+        increments[3] = (1 + p) / 2;
+        increments[4] = 1;
+    }//Constructor
+
+    /**
+     * This method adds a value to the estimate.
+     *
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        if (count < 5) {
+            heights[count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+                for (int i = 0; i < 5; i++) {
+                    positions[i] = i + 1;
+                }
+                desiredPositions[0] = 1;
+                desiredPositions[1] = 1 + 2 * p;
+                desiredPositions[2] = 1 + 4 * p;
+                desiredPositions[3] = 3 + 2 * p;
+                desiredPositions[4] = 5;
+            }
+            return;
+        }
+        count++;
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desiredPositions[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double offset = desiredPositions[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int direction = offset >= 0 ? 1 : -1;
+                double candidate = parabolic(i, direction);
+                if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                    heights[i] = candidate;
+                } else {
+                    heights[i] = linear(i, direction);
+                }
+                positions[i] += direction;
+            }
+        }
+    }//add
+
+    /**
+     * This method returns the current estimate of the quantile. While no more than five values
+     * have been added the exact quantile of those values is returned.
+     *
+     * @return The estimated quantile, or NaN if no values were added.
+     */
+    public double getQuantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count <= 5) {
+            double[] sorted = Arrays.copyOf(heights, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.round(p * (count - 1))];
+        }
+        return heights[2];
+    }//getQuantile
+
+    public int getCount() {
+        return count;
+    }
+
+    private double parabolic(int i, int d) {
+        return heights[i] + d / (positions[i + 1] - positions[i - 1])
+                * ((positions[i] - positions[i - 1] + d) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+                + (positions[i + 1] - positions[i] - d) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }//parabolic
+
+    private double linear(int i, int d) {
+        return heights[i] + d * (heights[i + d] - heights[i]) / (positions[i + d] - positions[i]);
+    }//linear
+}//P2Quantile